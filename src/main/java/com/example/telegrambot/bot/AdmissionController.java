@@ -0,0 +1,252 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.DataSourcePools;
+import com.example.telegrambot.session.TenantChat;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides on the polling thread, before dispatch, whether an update is handled.
+ *
+ * Per chat: a token bucket packed into one AtomicLong (last refill time in
+ * the high bits, milli-tokens in the low 20 bits). Idle buckets are swept
+ * once they would have refilled completely, so dropping them loses nothing.
+ *
+ * Globally: load is sampled every 250ms from the dispatch queue depth and the
+ * number of threads currently waiting for a DB connection. Shedding starts
+ * when either passes its limit and stops once both are back under half of
+ * it, so the flag does not flap around the threshold.
+ *
+ * Rejections must not turn into outbound load: a chat gets at most one busy
+ * reply per cooldown, all busy replies share a small global budget, and
+ * anything over that is dropped without even an ack.
+ */
+@Component
+public class AdmissionController {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKEN = 1000;
+
+    private static final long BUSY_REPLY_COOLDOWN_MS = 10_000;
+    private static final String BUSY_TEXT = "⏳ Busy right now, please try again in a moment.";
+
+    private final UpdateDispatcher dispatcher;
+    private final TelegramSender sender;
+    private final DataSourcePools pools;
+
+    private final double ratePerSecond;
+    private final long capacity;
+    private final int maxQueueDepth;
+    private final int maxDbWaiters;
+    private final double busyRepliesPerSecond;
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<TenantChat, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Busy reply per chat, built on its first rejection and reused after each cooldown
+    private final Map<TenantChat, BusyReply> busyReplies = new ConcurrentHashMap<>();
+    private final AtomicLong busyBudget;
+
+    private final Counter rateLimited;
+    private final Counter overloadShed;
+    private final Counter busyRepliesDropped;
+
+    private volatile boolean overloaded;
+
+    private static final class BusyReply {
+        private final SendMessage message;
+        private volatile long lastSentAt;
+
+        private BusyReply(TenantChat chat) {
+            this.message = SendMessage.builder()
+                    .chatId(chat.chatId().toString())
+                    .text(BUSY_TEXT)
+                    .build();
+        }
+    }
+
+    public AdmissionController(UpdateDispatcher dispatcher,
+                               TelegramSender sender,
+                               MeterRegistry meterRegistry,
+                               DataSourcePools pools,
+                               @Value("${telegram.admission.rate-per-second:1.0}") double ratePerSecond,
+                               @Value("${telegram.admission.burst:5}") int burst,
+                               @Value("${telegram.admission.max-queue-depth:500}") int maxQueueDepth,
+                               @Value("${telegram.admission.max-db-waiters:10}") int maxDbWaiters,
+                               @Value("${telegram.admission.busy-replies-per-second:5}") double busyRepliesPerSecond) {
+
+        if (burst < 1 || burst * MILLI_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("telegram.admission.burst must be between 1 and "
+                    + TOKEN_MASK / MILLI_TOKEN);
+        }
+
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+        this.pools = pools;
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = burst * MILLI_TOKEN;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxDbWaiters = maxDbWaiters;
+        this.busyRepliesPerSecond = busyRepliesPerSecond;
+        this.busyBudget = new AtomicLong(pack(0, MILLI_TOKEN));
+
+        rateLimited = Counter.builder("bot.admission.rejected").tag("reason", "rate_limited")
+                .register(meterRegistry);
+        overloadShed = Counter.builder("bot.admission.rejected").tag("reason", "overloaded")
+                .register(meterRegistry);
+        busyRepliesDropped = Counter.builder("bot.admission.busy_replies.dropped")
+                .register(meterRegistry);
+
+        Gauge.builder("bot.dispatch.queue.depth", dispatcher, UpdateDispatcher::getQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("bot.sender.queue.depth", sender, TelegramSender::getQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("bot.admission.overloaded", this, c -> c.overloaded ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // ======================================================
+    // ================= ADMISSION ==========================
+    // ======================================================
+
+    public boolean admit(String tenantId, Long chatId, Update update) {
+
+        if (chatId == null) return true;
+
+        TenantChat key = new TenantChat(tenantId, chatId);
+
+        if (overloaded) {
+            overloadShed.increment();
+            replyBusy(key, update);
+            return false;
+        }
+
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now(), capacity)));
+
+        if (!tryAcquire(bucket, ratePerSecond, capacity)) {
+            rateLimited.increment();
+            replyBusy(key, update);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean tryAcquire(AtomicLong state, double rate, long max) {
+
+        long now = now();
+
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+
+            // elapsed ms * tokens/s = milli-tokens
+            long refill = (long) (Math.max(0, now - last) * rate);
+            long available = Math.min(max, tokens + refill);
+
+            if (available < MILLI_TOKEN) {
+                return false;
+            }
+
+            if (state.compareAndSet(current, pack(now, available - MILLI_TOKEN))) {
+                return true;
+            }
+        }
+    }
+
+    private long now() {
+        return System.currentTimeMillis() - epoch;
+    }
+
+    private long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+
+    // Callbacks left without an ack just spin briefly on the client, which is
+    // the cheapest possible answer to a flood
+    private void replyBusy(TenantChat key, Update update) {
+
+        BusyReply reply = busyReplies.computeIfAbsent(key, BusyReply::new);
+        long now = System.currentTimeMillis();
+
+        if (now - reply.lastSentAt < BUSY_REPLY_COOLDOWN_MS
+                || !tryAcquire(busyBudget, busyRepliesPerSecond, MILLI_TOKEN)) {
+            busyRepliesDropped.increment();
+            return;
+        }
+        reply.lastSentAt = now;
+
+        if (update.hasCallbackQuery()) {
+            sender.sendAsync(key.tenantId(), AnswerCallbackQuery.builder()
+                    .callbackQueryId(update.getCallbackQuery().getId())
+                    .text(BUSY_TEXT)
+                    .build());
+        } else if (update.hasMessage()) {
+            sender.sendAsync(key.tenantId(), reply.message);
+        }
+    }
+
+    // ======================================================
+    // ================= LOAD MONITOR =======================
+    // ======================================================
+
+    @Scheduled(fixedRate = 250)
+    public void refreshLoad() {
+
+        int queueDepth = dispatcher.getQueueDepth();
+        int dbWaiters = dbWaiters();
+
+        boolean nowOverloaded = overloaded
+                ? queueDepth > maxQueueDepth / 2 || dbWaiters > maxDbWaiters / 2
+                : queueDepth > maxQueueDepth || dbWaiters > maxDbWaiters;
+
+        if (nowOverloaded != overloaded) {
+            System.out.println(nowOverloaded
+                    ? "🚦 Shedding load (queue=" + queueDepth + ", dbWaiters=" + dbWaiters + ")"
+                    : "🚦 Load back to normal");
+        }
+        overloaded = nowOverloaded;
+    }
+
+    // Threads blocked on getConnection() right now, over every pool
+    private int dbWaiters() {
+        return pools.all().stream()
+                .map(HikariDataSource::getHikariPoolMXBean)
+                .filter(pool -> pool != null)
+                .mapToInt(HikariPoolMXBean::getThreadsAwaitingConnection)
+                .sum();
+    }
+
+    // A bucket idle long enough to be full again is equivalent to no bucket
+    @Scheduled(fixedDelay = 60000)
+    public void sweep() {
+
+        long now = now();
+        long refillMs = (long) (capacity / Math.max(ratePerSecond, 0.001));
+
+        buckets.entrySet().removeIf(e -> now - (e.getValue().get() >>> TOKEN_BITS) > refillMs);
+
+        long wallNow = System.currentTimeMillis();
+        busyReplies.values().removeIf(reply -> wallNow - reply.lastSentAt > BUSY_REPLY_COOLDOWN_MS);
+    }
+
+    public int getTrackedChats() {
+        return buckets.size();
+    }
+}
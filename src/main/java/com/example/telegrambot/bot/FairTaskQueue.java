@@ -0,0 +1,126 @@
+package com.example.telegrambot.bot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking task queue with one FIFO per tenant, drained round-robin.
+ * A tenant with a deep backlog gets one turn per cycle like everyone else,
+ * so it cannot starve the others. Order within a tenant is preserved.
+ */
+public class FairTaskQueue {
+
+    private final Map<String, Queue<Runnable>> queues = new HashMap<>();
+    private final List<String> tenants = new ArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private int next;
+    private int size;
+    private boolean closed;
+
+    public void submit(String tenantId, Runnable task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Queue is closed");
+            }
+
+            Queue<Runnable> queue = queues.get(tenantId);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(tenantId, queue);
+                tenants.add(tenantId);
+            }
+
+            queue.add(task);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns null once the queue is closed and fully drained
+    public Runnable take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0) {
+                if (closed) return null;
+                notEmpty.await();
+            }
+
+            for (int i = 0; i < tenants.size(); i++) {
+                int index = (next + i) % tenants.size();
+                Runnable task = queues.get(tenants.get(index)).poll();
+
+                if (task != null) {
+                    next = index + 1;
+                    size--;
+                    return task;
+                }
+            }
+
+            throw new IllegalStateException("size and queues out of sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Empties the queue and returns what was still waiting
+    public List<Runnable> discard() {
+        lock.lock();
+        try {
+            List<Runnable> dropped = new ArrayList<>(size);
+            for (Queue<Runnable> queue : queues.values()) {
+                dropped.addAll(queue);
+                queue.clear();
+            }
+            size = 0;
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for workers to exit, giving up at the deadline (System.nanoTime)
+    static void awaitWorkers(Thread[] workers, long deadlineNanos) {
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMs <= 0) return;
+            try {
+                worker.join(remainingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,47 +1,99 @@
 package com.example.telegrambot.bot;
 
-import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.config.StartupTimer;
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import com.example.telegrambot.entity.QuestionOrder;
 import com.example.telegrambot.entity.QuizEntity;
 import com.example.telegrambot.exception.BadRequestException;
 import com.example.telegrambot.exception.QuizStateException;
+import com.example.telegrambot.jfr.JfrRecorder;
+import com.example.telegrambot.jfr.OutboundSendEvent;
+import com.example.telegrambot.jfr.UpdateHandledEvent;
+import com.example.telegrambot.model.QuizQuestion;
+import com.example.telegrambot.model.QuizSearchHit;
 import com.example.telegrambot.service.AdminService;
+import com.example.telegrambot.service.BroadcastService;
+import com.example.telegrambot.service.LiveQuizService;
 import com.example.telegrambot.service.QuizService;
+import com.example.telegrambot.service.ResultExportService;
+import com.example.telegrambot.service.UserRegistryService;
 import com.example.telegrambot.session.AdminSession;
-import org.springframework.beans.factory.annotation.Value;
+import com.example.telegrambot.session.LiveRoom;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
 import org.springframework.data.domain.Page;
-import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.AnswerInlineQuery;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.*;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.InlineQuery;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.inputmessagecontent.InputTextMessageContent;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.result.InlineQueryResult;
+import org.telegram.telegrambots.meta.api.objects.inlinequery.result.InlineQueryResultArticle;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-@Component
+/**
+ * One instance per tenant, created by QuizBotRegistry. Services are shared;
+ * every update is handled with TenantContext set to this bot's tenant.
+ */
 public class QuizBot extends TelegramLongPollingBot {
 
+    private final String tenantId;
+    private final String username;
+
     private final QuizService quizService;
     private final AdminService adminService;
+    private final UserRegistryService userRegistry;
+    private final BroadcastService broadcastService;
+    private final ResultExportService resultExportService;
+    private final LiveQuizService liveQuizService;
+    private final JfrRecorder jfrRecorder;
+    private final UpdateDispatcher dispatcher;
+    private final StartupTimer startupTimer;
+    private final AdmissionController admission;
 
     private final Set<Long> answeringUsers = ConcurrentHashMap.newKeySet();
     private final Map<Long, AdminSession> adminSessions = new ConcurrentHashMap<>();
     private final Map<Long, Integer> userPages = new ConcurrentHashMap<>();
 
     private static final int PAGE_SIZE = 5;
-
-    @Value("${telegram.bot.token}")
-    private String token;
-
-    @Value("${telegram.bot.username}")
-    private String username;
-
-    public QuizBot(QuizService quizService, AdminService adminService) {
+    private static final int SEARCH_LIMIT = 10;
+    private static final String DEEP_LINK_QUIZ = "quiz_";
+
+    public QuizBot(DefaultBotOptions botOptions,
+                   Tenant tenant,
+                   QuizService quizService,
+                   AdminService adminService,
+                   UserRegistryService userRegistry,
+                   BroadcastService broadcastService,
+                   ResultExportService resultExportService,
+                   LiveQuizService liveQuizService,
+                   JfrRecorder jfrRecorder,
+                   UpdateDispatcher dispatcher,
+                   StartupTimer startupTimer,
+                   AdmissionController admission) {
+        super(botOptions, tenant.getToken());
+        this.tenantId = tenant.getId();
+        this.username = tenant.getUsername();
         this.quizService = quizService;
         this.adminService = adminService;
-        System.out.println("✅ QuizBot initialized");
+        this.userRegistry = userRegistry;
+        this.broadcastService = broadcastService;
+        this.resultExportService = resultExportService;
+        this.liveQuizService = liveQuizService;
+        this.jfrRecorder = jfrRecorder;
+        this.dispatcher = dispatcher;
+        this.startupTimer = startupTimer;
+        this.admission = admission;
+        System.out.println("✅ QuizBot initialized [" + tenantId + "]");
     }
 
     @Override
@@ -49,18 +101,48 @@ public class QuizBot extends TelegramLongPollingBot {
         return username;
     }
 
-    @Override
-    public String getBotToken() {
-        return token;
+    public String getTenantId() {
+        return tenantId;
     }
 
     // ==========================================================
     // ================= UPDATE HANDLER =========================
     // ==========================================================
 
+    // Hand updates to the dispatcher so the polling thread never waits on DB or HTTP.
+    // Admission runs first: flooding chats and global overload never reach a handler.
+    @Override
+    public void onUpdatesReceived(List<Update> updates) {
+        for (Update update : updates) {
+
+            Long laneKey = laneKeyOf(update);
+            if (!admission.admit(tenantId, laneKey, update)) continue;
+
+            dispatcher.dispatch(tenantId, laneKey, () -> {
+                UpdateHandledEvent event = new UpdateHandledEvent();
+                // Also labels the service, repository and send events of this update
+                String type = event.isEnabled() ? updateType(update) : null;
+                event.begin();
+                try {
+                    TenantContext.withUpdateType(type, () -> onUpdateReceived(update));
+                } finally {
+                    if (event.shouldCommit()) {
+                        event.tenantId = tenantId;
+                        event.chatId = laneKey == null ? 0 : laneKey;
+                        event.updateType = type;
+                        event.commit();
+                    }
+                }
+                startupTimer.firstUpdateHandled();
+            });
+        }
+    }
+
     @Override
     public void onUpdateReceived(Update update) {
 
+        userRegistry.record(chatIdOf(update));
+
         if (update.hasMessage() && update.getMessage().hasText()) {
             handleText(update.getMessage());
             return;
@@ -68,6 +150,11 @@ public class QuizBot extends TelegramLongPollingBot {
 
         if (update.hasCallbackQuery()) {
             handleCallback(update.getCallbackQuery());
+            return;
+        }
+
+        if (update.hasInlineQuery()) {
+            handleInlineQuery(update.getInlineQuery());
         }
     }
 
@@ -86,6 +173,48 @@ public class QuizBot extends TelegramLongPollingBot {
             return;
         }
 
+        // DEEP LINK FROM INLINE RESULT: /start quiz_<id>
+        if (text.startsWith("/start " + DEEP_LINK_QUIZ)) {
+            try {
+                Long quizId = Long.parseLong(text.substring(("/start " + DEEP_LINK_QUIZ).length()));
+                quizService.startQuiz(chatId, quizId);
+                sendNextQuestion(chatId);
+            } catch (NumberFormatException ex) {
+                sendStartMenu(chatId);
+            } catch (BadRequestException ex) {
+                sendMessage(chatId, "⚠️ " + ex.getMessage());
+            }
+            return;
+        }
+
+        // SEARCH
+        if (text.startsWith("/search")) {
+            String query = text.substring("/search".length()).trim();
+            if (query.isEmpty()) {
+                sendMessage(chatId, "Usage: /search <text>");
+                return;
+            }
+            showSearchResults(chatId, query);
+            return;
+        }
+
+        // JOIN LIVE ROOM
+        if (text.startsWith("/join")) {
+            String[] parts = text.split(" ");
+            if (parts.length != 2) {
+                sendMessage(chatId, "Usage: /join <roomId>");
+                return;
+            }
+            try {
+                LiveRoom room = liveQuizService.join(Long.parseLong(parts[1]), chatId,
+                        displayName(message.getFrom()));
+                sendMessage(chatId, "🎮 Joined live room #" + room.getId() + ". Wait for the host to start!");
+            } catch (BadRequestException ex) {
+                sendMessage(chatId, "⚠️ " + ex.getMessage());
+            }
+            return;
+        }
+
         // ================= ROOT ADMIN COMMANDS =================
         if (adminService.isRootAdmin(chatId)) {
 
@@ -113,6 +242,40 @@ public class QuizBot extends TelegramLongPollingBot {
                 return;
             }
 
+            if (text.startsWith("/broadcast")) {
+                String[] parts = text.split(" ");
+                if (parts.length != 2) {
+                    sendMessage(chatId, "Usage: /broadcast <quizId>");
+                    return;
+                }
+                try {
+                    var broadcast = broadcastService.startBroadcast(Long.parseLong(parts[1]), chatId);
+                    sendMessage(chatId, "📣 Broadcast #" + broadcast.getId() + " started.");
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
+            if (text.startsWith("/jfr") && jfrRecorder.isControlledBy(tenantId)) {
+                String[] parts = text.split(" ");
+                String action = parts.length == 2 ? parts[1] : "";
+                try {
+                    switch (action) {
+                        case "start" -> sendMessage(chatId, jfrRecorder.start());
+                        case "status" -> sendMessage(chatId, jfrRecorder.status());
+                        case "dump", "stop" -> {
+                            jfrRecorder.dump(tenantId, chatId, action.equals("stop"));
+                            sendMessage(chatId, "🎥 Dumping the recording, the file follows.");
+                        }
+                        default -> sendMessage(chatId, "Usage: /jfr start|status|dump|stop");
+                    }
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
             if (text.equals("/listadmins")) {
                 var admins = adminService.getAllAdmins();
                 StringBuilder sb = new StringBuilder("👥 Admins:\n");
@@ -123,7 +286,83 @@ public class QuizBot extends TelegramLongPollingBot {
         }
 
         // NORMAL ADMIN FLOW
-        if (adminService.isAdmin(chatId)) {
+        if (adminService.isAdminUncached(chatId)) {
+
+            if (text.startsWith("/live")) {
+                String[] parts = text.split(" ");
+                if (parts.length != 2) {
+                    sendMessage(chatId, "Usage: /live <quizId>");
+                    return;
+                }
+                try {
+                    LiveRoom room = liveQuizService.createRoom(Long.parseLong(parts[1]), chatId);
+                    executeSafe(SendMessage.builder()
+                            .chatId(chatId.toString())
+                            .text("🔴 Live room #" + room.getId() + " created.\n"
+                                    + "Players join with: /join " + room.getId())
+                            .replyMarkup(new InlineKeyboardMarkup(List.of(
+                                    List.of(btn("▶️ Start Live Quiz", "LIVE_START_" + room.getId())))))
+                            .build());
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
+            if (text.startsWith("/order")) {
+                String[] parts = text.split(" ");
+                if (parts.length != 3) {
+                    sendMessage(chatId, "Usage: /order <quizId> <sequential|shuffled|adaptive>");
+                    return;
+                }
+                try {
+                    QuestionOrder order = QuestionOrder.valueOf(parts[2].toUpperCase());
+                    quizService.setQuestionOrder(Long.parseLong(parts[1]), order);
+                    sendMessage(chatId, "🔀 Question order set to " + order.name().toLowerCase() + ".");
+                } catch (IllegalArgumentException ex) {
+                    sendMessage(chatId, "⚠️ Unknown order: " + parts[2]);
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
+            if (text.startsWith("/mode")) {
+                String[] parts = text.split(" ");
+                if (parts.length != 3
+                        || !(parts[2].equalsIgnoreCase("single") || parts[2].equalsIgnoreCase("classic"))) {
+                    sendMessage(chatId, "Usage: /mode <quizId> <single|classic>");
+                    return;
+                }
+                try {
+                    boolean single = parts[2].equalsIgnoreCase("single");
+                    quizService.setSingleMessage(Long.parseLong(parts[1]), single);
+                    sendMessage(chatId, single
+                            ? "💬 Quiz now runs in a single message."
+                            : "💬 Quiz now sends one message per question.");
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
+            if (text.startsWith("/export")) {
+                String[] parts = text.split(" ");
+                if (parts.length != 2) {
+                    sendMessage(chatId, "Usage: /export <quizId>");
+                    return;
+                }
+                try {
+                    resultExportService.startExport(Long.parseLong(parts[1]), chatId);
+                    sendMessage(chatId, "📄 Export started, the file will arrive shortly.");
+                } catch (NumberFormatException ex) {
+                    sendMessage(chatId, "Usage: /export <quizId>");
+                } catch (BadRequestException ex) {
+                    sendMessage(chatId, "⚠️ " + ex.getMessage());
+                }
+                return;
+            }
+
             handleAdminText(chatId, text);
         }
     }
@@ -134,6 +373,9 @@ public class QuizBot extends TelegramLongPollingBot {
 
     private void handleCallback(CallbackQuery callback) {
 
+        // Buttons on inline-mode messages carry no chat
+        if (callback.getMessage() == null) return;
+
         String data = callback.getData();
         Long chatId = callback.getMessage().getChatId();
 
@@ -155,7 +397,7 @@ public class QuizBot extends TelegramLongPollingBot {
         // DELETE QUIZ (ADMIN ONLY)
         if (data.startsWith("DEL_")) {
 
-            if (!adminService.isAdmin(chatId)) {
+            if (!adminService.isAdminUncached(chatId)) {
                 sendMessage(chatId, "⛔ Unauthorized action.");
                 return;
             }
@@ -177,14 +419,38 @@ public class QuizBot extends TelegramLongPollingBot {
             return;
         }
 
+        // LIVE ROUND ANSWER: LIVE_ANS_<room>_<round>_<option>
+        if (data.startsWith("LIVE_ANS_")) {
+            String[] parts = data.substring("LIVE_ANS_".length()).split("_");
+            if (parts.length == 3) {
+                handleLiveAnswer(callback, chatId, Long.parseLong(parts[0]),
+                        Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            }
+            return;
+        }
+
         if (data.startsWith("ANS_")) {
             int selected = Integer.parseInt(data.replace("ANS_", ""));
-            handleAnswer(chatId, callback.getMessage(), selected);
+            if (quizService.isSingleMessage(chatId)) {
+                handleAnswerInPlace(callback, chatId, selected);
+            } else {
+                handleAnswer(chatId, callback.getMessage(), selected);
+            }
+            return;
+        }
+
+        // LIVE ROOM START (HOST ONLY)
+        if (data.startsWith("LIVE_START_")) {
+            try {
+                liveQuizService.start(Long.parseLong(data.replace("LIVE_START_", "")), chatId);
+            } catch (BadRequestException | QuizStateException ex) {
+                sendMessage(chatId, "⚠️ " + ex.getMessage());
+            }
             return;
         }
 
         // ADMIN MENU FLOW
-        if (adminService.isAdmin(chatId)) {
+        if (adminService.isAdminUncached(chatId)) {
 
             if (data.equals("CREATE_QUIZ")) {
                 AdminSession session = new AdminSession();
@@ -304,29 +570,30 @@ public class QuizBot extends TelegramLongPollingBot {
 
     private void sendNextQuestion(Long chatId) {
 
-        QuestionEntity q = quizService.getNextQuestion(chatId);
+        QuizQuestion q = quizService.getNextQuestion(chatId);
 
         if (q == null) {
-            int score = quizService.getScore(chatId);
-            quizService.reset(chatId);
+            int score = quizService.finish(chatId);
             sendMessage(chatId, "🏁 Quiz Finished!\nScore: " + score);
             return;
         }
 
-        List<List<InlineKeyboardButton>> rows = List.of(
-                List.of(btn(q.getOption1(), "ANS_0")),
-                List.of(btn(q.getOption2(), "ANS_1")),
-                List.of(btn(q.getOption3(), "ANS_2")),
-                List.of(btn(q.getOption4(), "ANS_3"))
-        );
-
         executeSafe(SendMessage.builder()
                 .chatId(chatId.toString())
                 .text("❓ " + q.getQuestion())
-                .replyMarkup(new InlineKeyboardMarkup(rows))
+                .replyMarkup(answerKeyboard(q))
                 .build());
     }
 
+    // Options arrive already remapped for this session
+    private InlineKeyboardMarkup answerKeyboard(QuizQuestion q) {
+        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
+        for (int i = 0; i < q.getOptions().size(); i++) {
+            rows.add(List.of(btn(q.getOptions().get(i), "ANS_" + i)));
+        }
+        return new InlineKeyboardMarkup(rows);
+    }
+
     private void handleAnswer(Long chatId, Message message, int selected) {
 
         if (!answeringUsers.add(chatId)) return;
@@ -353,6 +620,70 @@ public class QuizBot extends TelegramLongPollingBot {
         }
     }
 
+    // Single-message mode: feedback goes in a toast and the same message is
+    // edited into the next question, so no new message is sent per answer
+    private void handleAnswerInPlace(CallbackQuery callback, Long chatId, int selected) {
+
+        if (!answeringUsers.add(chatId)) return;
+
+        Integer messageId = callback.getMessage().getMessageId();
+
+        try {
+            boolean correct = quizService.checkAnswer(chatId, selected);
+            String feedback = correct ? "✅ Correct!" : "❌ Wrong!";
+
+            // Only clears the button spinner: the feedback goes into the edit,
+            // where it stays visible instead of a toast that fades
+            executeSafe(AnswerCallbackQuery.builder()
+                    .callbackQueryId(callback.getId())
+                    .build());
+
+            QuizQuestion q = quizService.getNextQuestion(chatId);
+
+            if (q == null) {
+                int score = quizService.finish(chatId);
+                executeSafe(EditMessageText.builder()
+                        .chatId(chatId.toString())
+                        .messageId(messageId)
+                        .text(feedback + "\n\n🏁 Quiz Finished!\nScore: " + score)
+                        .build());
+                return;
+            }
+
+            executeSafe(EditMessageText.builder()
+                    .chatId(chatId.toString())
+                    .messageId(messageId)
+                    .text(feedback + "\n\n❓ " + q.getQuestion())
+                    .replyMarkup(answerKeyboard(q))
+                    .build());
+
+        } catch (BadRequestException | QuizStateException ex) {
+            sendMessage(chatId, "⚠️ " + ex.getMessage());
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            sendMessage(chatId, "🚨 Something went wrong.");
+        } finally {
+            answeringUsers.remove(chatId);
+        }
+    }
+
+    private void handleLiveAnswer(CallbackQuery callback, Long chatId, Long roomId, int round, int selected) {
+
+        String toast;
+        try {
+            toast = liveQuizService.submitAnswer(chatId, roomId, round, selected)
+                    ? "🔒 Answer locked in!"
+                    : "⏳ Round closed or already answered.";
+        } catch (QuizStateException ex) {
+            toast = "⚠️ " + ex.getMessage();
+        }
+
+        executeSafe(AnswerCallbackQuery.builder()
+                .callbackQueryId(callback.getId())
+                .text(toast)
+                .build());
+    }
+
     // ==========================================================
     // ================= MENUS ==================================
     // ==========================================================
@@ -436,22 +767,127 @@ public class QuizBot extends TelegramLongPollingBot {
                 .build());
     }
 
+    // ==========================================================
+    // ================= SEARCH =================================
+    // ==========================================================
+
+    private void showSearchResults(Long chatId, String query) {
+
+        List<QuizSearchHit> hits = quizService.searchQuizzes(query, SEARCH_LIMIT);
+
+        if (hits.isEmpty()) {
+            sendMessage(chatId, "🔍 No quizzes match \"" + query + "\".");
+            return;
+        }
+
+        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
+        for (QuizSearchHit hit : hits) {
+            rows.add(List.of(btn("📘 " + hit.title(), "QUIZ_" + hit.quizId())));
+        }
+
+        executeSafe(SendMessage.builder()
+                .chatId(chatId.toString())
+                .text("🔍 Results for \"" + query + "\"")
+                .replyMarkup(new InlineKeyboardMarkup(rows))
+                .build());
+    }
+
+    // Inline mode: results link back to the bot with a /start deep link,
+    // because the posted message lives in someone else's chat
+    private void handleInlineQuery(InlineQuery inlineQuery) {
+
+        List<InlineQueryResult> results = new ArrayList<>();
+
+        for (QuizSearchHit hit : quizService.searchQuizzes(inlineQuery.getQuery(), SEARCH_LIMIT)) {
+
+            InlineKeyboardButton play = new InlineKeyboardButton("▶️ Take this quiz");
+            play.setUrl("https://t.me/" + username + "?start=" + DEEP_LINK_QUIZ + hit.quizId());
+
+            results.add(InlineQueryResultArticle.builder()
+                    .id(hit.quizId().toString())
+                    .title(hit.title())
+                    .description("Played " + hit.takes() + " times")
+                    .inputMessageContent(InputTextMessageContent.builder()
+                            .messageText("📘 " + hit.title())
+                            .build())
+                    .replyMarkup(new InlineKeyboardMarkup(List.of(List.of(play))))
+                    .build());
+        }
+
+        executeSafe(AnswerInlineQuery.builder()
+                .inlineQueryId(inlineQuery.getId())
+                .results(results)
+                .cacheTime(30)
+                .build());
+    }
+
     // ==========================================================
     // ================= UTIL ===================================
     // ==========================================================
 
+    // Inline queries have no chat; keep each user on one lane anyway
+    private Long laneKeyOf(Update update) {
+        if (update.hasInlineQuery()) return update.getInlineQuery().getFrom().getId();
+        return chatIdOf(update);
+    }
+
+    // Low-cardinality label for JFR: command word or callback prefix without ids
+    private String updateType(Update update) {
+        if (update.hasCallbackQuery()) {
+            // Game callbacks carry no data
+            String data = update.getCallbackQuery().getData();
+            return data == null ? "callback" : "callback " + data.replaceAll("\\d+$", "");
+        }
+        if (update.hasMessage() && update.getMessage().hasText()) {
+            String text = update.getMessage().getText().trim();
+            return text.startsWith("/") ? "message " + text.split("\\s+")[0] : "message";
+        }
+        if (update.hasInlineQuery()) return "inline";
+        return "other";
+    }
+
+    private Long chatIdOf(Update update) {
+        if (update.hasMessage()) return update.getMessage().getChatId();
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            return update.getCallbackQuery().getMessage().getChatId();
+        }
+        return null;
+    }
+
+    // Name other players see on the live scoreboard
+    private String displayName(User user) {
+        if (user == null) return "Player";
+        if (user.getFirstName() != null && !user.getFirstName().isBlank()) return user.getFirstName();
+        if (user.getUserName() != null) return "@" + user.getUserName();
+        return "Player";
+    }
+
     private InlineKeyboardButton btn(String text, String data) {
         InlineKeyboardButton b = new InlineKeyboardButton(text);
         b.setCallbackData(data);
         return b;
     }
 
-    private void executeSafe(Object method) {
+    private void executeSafe(BotApiMethod<?> method) {
+
+        OutboundSendEvent event = new OutboundSendEvent();
+        event.begin();
+
         try {
-            if (method instanceof SendMessage m) execute(m);
-            if (method instanceof EditMessageText m) execute(m);
+            execute(method);
         } catch (Exception e) {
+            event.failed = true;
             e.printStackTrace();
+        } finally {
+            if (event.shouldCommit()) {
+                TenantChat origin = TenantContext.currentChat();
+                event.tenantId = tenantId;
+                event.chatId = origin == null ? 0 : origin.chatId();
+                event.updateType = TenantContext.currentUpdateType();
+                event.method = method.getMethod();
+                event.attempts = 1;
+                event.commit();
+            }
         }
     }
 
@@ -0,0 +1,49 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.StartupTimer;
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import com.example.telegrambot.config.TenantRegistry;
+import com.example.telegrambot.service.AdminService;
+import com.example.telegrambot.service.BroadcastService;
+import com.example.telegrambot.jfr.JfrRecorder;
+import com.example.telegrambot.service.LiveQuizService;
+import com.example.telegrambot.service.QuizService;
+import com.example.telegrambot.service.ResultExportService;
+import com.example.telegrambot.service.UserRegistryService;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// One QuizBot per configured tenant, all sharing the same services
+@Component
+public class QuizBotRegistry {
+
+    private final List<QuizBot> bots = new ArrayList<>();
+
+    public QuizBotRegistry(TenantRegistry tenantRegistry,
+                           DefaultBotOptions botOptions,
+                           QuizService quizService,
+                           AdminService adminService,
+                           UserRegistryService userRegistry,
+                           BroadcastService broadcastService,
+                           ResultExportService resultExportService,
+                           LiveQuizService liveQuizService,
+                           JfrRecorder jfrRecorder,
+                           UpdateDispatcher dispatcher,
+                           StartupTimer startupTimer,
+                           AdmissionController admission) {
+
+        for (Tenant tenant : tenantRegistry.all()) {
+            bots.add(new QuizBot(botOptions, tenant, quizService, adminService, userRegistry,
+                    broadcastService, resultExportService, liveQuizService, jfrRecorder, dispatcher, startupTimer,
+                    admission));
+        }
+    }
+
+    public List<QuizBot> all() {
+        return Collections.unmodifiableList(bots);
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import com.example.telegrambot.config.TenantRegistry;
+import com.example.telegrambot.jfr.OutboundSendEvent;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.bots.DefaultAbsSender;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound Telegram client shared by background jobs of every tenant.
+ * Telegram rate-limits per bot, so each tenant has its own rate limiter and
+ * 429 pause; a 429 pauses every worker sending for that bot instead of
+ * letting each thread hammer the API. Workers are shared and pick tasks
+ * round-robin across tenants.
+ */
+@Component
+public class TelegramSender {
+
+    private static final int MAX_RETRIES = 3;
+    private static final String RATE_LIMITER = "telegramOutbound";
+
+    private final Map<String, Client> clients = new HashMap<>();
+    private final FairTaskQueue queue = new FairTaskQueue();
+    private final Thread[] workers;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private static final class Client {
+        private final DefaultAbsSender api;
+        private final RateLimiter rateLimiter;
+        private volatile long pausedUntil;
+
+        private Client(DefaultAbsSender api, RateLimiter rateLimiter) {
+            this.api = api;
+            this.rateLimiter = rateLimiter;
+        }
+    }
+
+    public TelegramSender(DefaultBotOptions botOptions,
+                          TenantRegistry tenantRegistry,
+                          @Value("${telegram.sender.threads:8}") int threads,
+                          RateLimiterRegistry rateLimiterRegistry) {
+
+        RateLimiterConfig config = rateLimiterRegistry.rateLimiter(RATE_LIMITER).getRateLimiterConfig();
+
+        for (Tenant tenant : tenantRegistry.all()) {
+
+            String limiterName = TenantRegistry.DEFAULT_TENANT.equals(tenant.getId())
+                    ? RATE_LIMITER
+                    : RATE_LIMITER + "-" + tenant.getId();
+
+            clients.put(tenant.getId(), new Client(
+                    new DefaultAbsSender(botOptions, tenant.getToken()) {
+                    },
+                    rateLimiterRegistry.rateLimiter(limiterName, config)));
+        }
+
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, "sender-" + i);
+            workers[i].start();
+        }
+    }
+
+    // ======================================================
+    // ================= ASYNC SEND =========================
+    // ======================================================
+
+    // Sends as the bot of the calling thread's tenant
+    public <T extends Serializable> CompletableFuture<T> sendAsync(BotApiMethod<T> method) {
+        return sendAsync(TenantContext.current(), method);
+    }
+
+    public <T extends Serializable> CompletableFuture<T> sendAsync(String tenantId, BotApiMethod<T> method) {
+
+        Client client = clients.get(tenantId);
+
+        if (client == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown tenant: " + tenantId));
+        }
+
+        // Workers run outside the update's context: remember where the send came from
+        TenantChat origin = TenantContext.currentChat();
+        String updateType = TenantContext.currentUpdateType();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SendTask task = new SendTask(future, () -> {
+            OutboundSendEvent event = new OutboundSendEvent();
+            event.begin();
+            try {
+                future.complete(sendWithRetry(client, method, event));
+            } catch (Exception e) {
+                event.failed = true;
+                future.completeExceptionally(e);
+            } finally {
+                if (event.shouldCommit()) {
+                    event.tenantId = tenantId;
+                    event.chatId = origin == null ? 0 : origin.chatId();
+                    event.updateType = updateType;
+                    event.method = method.getMethod();
+                    event.commit();
+                }
+            }
+        });
+
+        try {
+            queue.submit(tenantId, task);
+        } catch (IllegalStateException e) {
+            // Closed for shutdown: same outcome as a send dropped by drain
+            task.cancel();
+        }
+        return future;
+    }
+
+    // Keeps the future next to the task so a discarded send still completes it
+    private record SendTask(CompletableFuture<?> future, Runnable send) implements Runnable {
+
+        @Override
+        public void run() {
+            send.run();
+        }
+
+        private void cancel() {
+            future.completeExceptionally(new CancellationException("Sender shut down"));
+        }
+    }
+
+    // Uploads run on the caller's thread: a streamed document can take far
+    // longer than a message and must not hold up the shared workers
+    public Message sendDocument(String tenantId, SendDocument document) throws TelegramApiException {
+
+        Client client = clients.get(tenantId);
+
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenantId);
+        }
+
+        OutboundSendEvent event = new OutboundSendEvent();
+        event.begin();
+
+        try {
+            waitForPause(client);
+            RateLimiter.waitForPermission(client.rateLimiter);
+
+            Message message = client.api.execute(document);
+            sent.incrementAndGet();
+            return message;
+        } catch (TelegramApiException e) {
+            failed.incrementAndGet();
+            event.failed = true;
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                TenantChat origin = TenantContext.currentChat();
+                event.tenantId = tenantId;
+                event.chatId = origin == null ? 0 : origin.chatId();
+                event.updateType = TenantContext.currentUpdateType();
+                event.method = "sendDocument";
+                event.attempts = 1;
+                event.commit();
+            }
+        }
+    }
+
+    private void work() {
+        try {
+            Runnable task;
+            while ((task = queue.take()) != null) {
+                task.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T extends Serializable> T sendWithRetry(Client client, BotApiMethod<T> method, OutboundSendEvent event) {
+
+        for (int attempt = 0; ; attempt++) {
+
+            event.attempts = attempt + 1;
+
+            waitForPause(client);
+            RateLimiter.waitForPermission(client.rateLimiter);
+
+            try {
+                T result = client.api.execute(method);
+                sent.incrementAndGet();
+                return result;
+
+            } catch (TelegramApiRequestException e) {
+
+                if (isTooManyRequests(e) && attempt < MAX_RETRIES) {
+                    throttled.incrementAndGet();
+                    pause(client, retryAfterSeconds(e));
+                    continue;
+                }
+
+                failed.incrementAndGet();
+                throw new CompletionException(e);
+
+            } catch (TelegramApiException e) {
+                failed.incrementAndGet();
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    // ======================================================
+    // ================= 429 BACKOFF ========================
+    // ======================================================
+
+    private boolean isTooManyRequests(TelegramApiRequestException e) {
+        return e.getErrorCode() != null && e.getErrorCode() == 429;
+    }
+
+    private int retryAfterSeconds(TelegramApiRequestException e) {
+        if (e.getParameters() != null && e.getParameters().getRetryAfter() != null) {
+            return e.getParameters().getRetryAfter();
+        }
+        return 1;
+    }
+
+    private void pause(Client client, int seconds) {
+        long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds);
+        if (until > client.pausedUntil) {
+            client.pausedUntil = until;
+        }
+    }
+
+    private void waitForPause(Client client) {
+        long wait = client.pausedUntil - System.currentTimeMillis();
+        if (wait <= 0) return;
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    // ======================================================
+    // ================= STATS ==============================
+    // ======================================================
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Stops intake, lets queued sends go out until the deadline (System.nanoTime)
+    // and fails the rest. Returns the number of dropped sends.
+    public int drain(long deadlineNanos) {
+
+        shutdown();
+        FairTaskQueue.awaitWorkers(workers, deadlineNanos);
+
+        List<Runnable> dropped = queue.discard();
+        dropped.forEach(task -> ((SendTask) task).cancel());
+        return dropped.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queue.close();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.session.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs update handling off the polling threads of every bot.
+ * Each chat is pinned to one single-threaded lane, so updates from the same
+ * chat stay in order while different chats are handled in parallel. Lanes
+ * are shared by all tenants and drain them round-robin.
+ */
+@Component
+public class UpdateDispatcher {
+
+    private final FairTaskQueue[] lanes;
+    private final Thread[] workers;
+
+    public UpdateDispatcher(@Value("${telegram.bot.dispatch-threads:8}") int threads) {
+
+        lanes = new FairTaskQueue[threads];
+        workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            FairTaskQueue lane = new FairTaskQueue();
+            lanes[i] = lane;
+            workers[i] = new Thread(() -> work(lane), "dispatch-" + i);
+            workers[i].start();
+        }
+    }
+
+    public void dispatch(String tenantId, Long chatId, Runnable task) {
+        lane(chatId).submit(tenantId, () -> TenantContext.run(tenantId, chatId, task));
+    }
+
+    private void work(FairTaskQueue lane) {
+        try {
+            Runnable task;
+            while ((task = lane.take()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private FairTaskQueue lane(Long chatId) {
+        int hash = chatId == null ? 0 : Long.hashCode(chatId);
+        return lanes[Math.floorMod(hash, lanes.length)];
+    }
+
+    public int getThreads() {
+        return lanes.length;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (FairTaskQueue lane : lanes) {
+            depth += lane.size();
+        }
+        return depth;
+    }
+
+    // Stops intake, lets the lanes run dry until the deadline (System.nanoTime)
+    // and discards whatever is left. Returns the number of dropped updates.
+    public int drain(long deadlineNanos) {
+
+        shutdown();
+        FairTaskQueue.awaitWorkers(workers, deadlineNanos);
+
+        int dropped = 0;
+        for (FairTaskQueue lane : lanes) {
+            dropped += lane.discard().size();
+        }
+        return dropped;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (FairTaskQueue lane : lanes) {
+            lane.close();
+        }
+    }
+}
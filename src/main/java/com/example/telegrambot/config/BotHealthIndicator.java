@@ -0,0 +1,23 @@
+package com.example.telegrambot.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Part of the readiness group: an instance is ready only once it is polling
+@Component
+public class BotHealthIndicator implements HealthIndicator {
+
+    private final BotInitializer botInitializer;
+
+    public BotHealthIndicator(BotInitializer botInitializer) {
+        this.botInitializer = botInitializer;
+    }
+
+    @Override
+    public Health health() {
+        return botInitializer.isRegistered()
+                ? Health.up().build()
+                : Health.down().withDetail("reason", "bot not registered yet").build();
+    }
+}
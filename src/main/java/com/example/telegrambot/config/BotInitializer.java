@@ -1,29 +1,111 @@
 package com.example.telegrambot.config;
 
 import com.example.telegrambot.bot.QuizBot;
-import jakarta.annotation.PostConstruct;
+import com.example.telegrambot.bot.QuizBotRegistry;
+import com.example.telegrambot.service.AdminService;
+import com.example.telegrambot.service.QuizService;
+import com.example.telegrambot.service.SessionHandoffService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.generics.BotSession;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers every tenant bot once the context is up: caches are warmed in
+ * parallel first, then polling starts, each bot retrying with backoff until
+ * Telegram accepts it. Nothing here blocks context startup.
+ */
 @Configuration
 public class BotInitializer {
 
-    private final QuizBot quizBot;
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private final QuizBotRegistry quizBots;
+    private final AdminService adminService;
+    private final QuizService quizService;
+    private final StartupTimer startupTimer;
+    private final SessionHandoffService sessionHandoff;
+
+    private final ScheduledExecutorService registrar = Executors.newSingleThreadScheduledExecutor();
+
+    private final Map<String, BotSession> botSessions = new ConcurrentHashMap<>();
 
-    public BotInitializer(QuizBot quizBot) {
-        this.quizBot = quizBot;
+    public BotInitializer(QuizBotRegistry quizBots,
+                          AdminService adminService,
+                          QuizService quizService,
+                          StartupTimer startupTimer,
+                          SessionHandoffService sessionHandoff) {
+        this.quizBots = quizBots;
+        this.adminService = adminService;
+        this.quizService = quizService;
+        this.startupTimer = startupTimer;
+        this.sessionHandoff = sessionHandoff;
     }
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void start() {
+
+        startupTimer.mark("Context ready");
+
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(adminService::warmUp),
+                CompletableFuture.runAsync(quizService::warmUp),
+                CompletableFuture.runAsync(quizService::warmUpSearchIndex),
+                CompletableFuture.runAsync(sessionHandoff::claim)
+        ).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                // Cold caches only cost latency, not correctness
+                System.err.println("⚠️ Cache warm-up failed: " + ex.getMessage());
+            } else {
+                startupTimer.mark("Caches warmed");
+            }
+            for (QuizBot bot : quizBots.all()) {
+                registrar.execute(() -> register(bot, INITIAL_BACKOFF_MS));
+            }
+        });
+    }
+
+    private void register(QuizBot bot, long backoffMs) {
         try {
             TelegramBotsApi botsApi = new TelegramBotsApi(DefaultBotSession.class);
-            botsApi.registerBot(quizBot);
-            System.out.println("✅ Telegram Bot Registered Successfully!");
+            botSessions.put(bot.getTenantId(), botsApi.registerBot(bot));
+            startupTimer.mark("Telegram Bot Registered [" + bot.getTenantId() + "]");
+            System.out.println("✅ Telegram Bot Registered Successfully! [" + bot.getTenantId() + "]");
         } catch (Exception e) {
-            System.err.println("❌ Failed to register bot:");
-            e.printStackTrace();
+            System.err.println("❌ Failed to register bot [" + bot.getTenantId() + "], retrying in "
+                    + backoffMs + " ms: " + e.getMessage());
+            registrar.schedule(() -> register(bot, Math.min(backoffMs * 2, MAX_BACKOFF_MS)),
+                    backoffMs, TimeUnit.MILLISECONDS);
         }
     }
+
+    // Ready once every tenant is polling
+    public boolean isRegistered() {
+        return botSessions.size() == quizBots.all().size()
+                && botSessions.values().stream().allMatch(BotSession::isRunning);
+    }
+
+    // Stops fetching updates; already fetched ones are left to the dispatcher
+    public void stopPolling() {
+        registrar.shutdownNow();
+        botSessions.values().forEach(session -> {
+            if (session.isRunning()) session.stop();
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopPolling();
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.telegrambot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every Hikari pool the app opens: the primary and one per read replica
+ * (none unless spring.datasource.replica.url is set). Owns the replica
+ * pools; the primary is a bean of its own and closed by the context.
+ */
+public class DataSourcePools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+
+    // Replicas by pool name, in rotation order
+    public DataSourcePools(HikariDataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    public HikariDataSource primary() {
+        return primary;
+    }
+
+    public Map<String, HikariDataSource> replicas() {
+        return replicas;
+    }
+
+    public List<HikariDataSource> all() {
+        List<HikariDataSource> all = new ArrayList<>(replicas.size() + 1);
+        all.add(primary);
+        all.addAll(replicas.values());
+        return all;
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
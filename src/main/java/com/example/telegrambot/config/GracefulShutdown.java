@@ -0,0 +1,87 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.bot.UpdateDispatcher;
+import com.example.telegrambot.service.BroadcastService;
+import com.example.telegrambot.service.SessionHandoffService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On SIGTERM, before any bean is destroyed: stop polling, let the dispatch
+ * lanes and then the outbound queue run dry within one shared deadline,
+ * and park quiz sessions and broadcasts for the next instance. Runs in the
+ * highest lifecycle phase so it stops first.
+ */
+@Component
+public class GracefulShutdown implements SmartLifecycle {
+
+    private final BotInitializer botInitializer;
+    private final UpdateDispatcher dispatcher;
+    private final TelegramSender sender;
+    private final SessionHandoffService sessionHandoff;
+    private final BroadcastService broadcastService;
+
+    private final long drainTimeoutMs;
+
+    private volatile boolean running;
+
+    public GracefulShutdown(BotInitializer botInitializer,
+                            UpdateDispatcher dispatcher,
+                            TelegramSender sender,
+                            SessionHandoffService sessionHandoff,
+                            BroadcastService broadcastService,
+                            @Value("${telegram.shutdown.drain-timeout-ms:20000}") long drainTimeoutMs) {
+        this.botInitializer = botInitializer;
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+        this.sessionHandoff = sessionHandoff;
+        this.broadcastService = broadcastService;
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+
+        System.out.println("🛑 Shutting down: draining for up to " + drainTimeoutMs + " ms");
+
+        botInitializer.stopPolling();
+        int droppedUpdates = dispatcher.drain(deadline);
+
+        // After the lanes so answers already in flight are part of the snapshot
+        int parked = 0;
+        try {
+            parked = sessionHandoff.park();
+        } catch (Exception e) {
+            System.err.println("❌ Failed to park sessions: " + e.getMessage());
+        }
+
+        // Broadcasts stop queueing first; the sends the drain drops are
+        // left behind their checkpoint and go out when the broadcast resumes
+        broadcastService.pause();
+        int droppedSends = sender.drain(deadline);
+        broadcastService.awaitPaused(deadline);
+
+        System.out.println("🛑 Drain finished in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+                + " ms: dropped " + droppedUpdates + " updates, " + droppedSends + " sends; parked "
+                + parked + " sessions");
+
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.bot.UpdateDispatcher;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PoolSizeValidator {
+
+    // Registry flush and broadcast job also hold a connection while running
+    private static final int BACKGROUND_CONNECTIONS = 2;
+
+    private final DataSourcePools pools;
+    private final UpdateDispatcher dispatcher;
+
+    public PoolSizeValidator(DataSourcePools pools, UpdateDispatcher dispatcher) {
+        this.pools = pools;
+        this.dispatcher = dispatcher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+
+        int lanes = dispatcher.getThreads();
+        int needed = lanes + BACKGROUND_CONNECTIONS;
+
+        pools.all().forEach(hikari -> {
+
+            int poolSize = hikari.getMaximumPoolSize();
+
+            // Lanes would sit on connection-timeout and fail updates: refuse to start
+            if (poolSize < lanes) {
+                throw new IllegalStateException("DB pool " + hikari.getPoolName() + " size " + poolSize
+                        + " is smaller than " + lanes + " dispatch threads; raise DB_POOL_SIZE"
+                        + " or lower DISPATCH_THREADS");
+            }
+
+            if (poolSize < needed) {
+                System.err.println("⚠️ DB pool " + hikari.getPoolName() + " size " + poolSize
+                        + " is smaller than " + lanes + " dispatch threads + "
+                        + BACKGROUND_CONNECTIONS + " background jobs; handlers will queue on connections under load.");
+            }
+        });
+    }
+}
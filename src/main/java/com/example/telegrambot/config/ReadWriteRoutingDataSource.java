@@ -0,0 +1,152 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends @Transactional(readOnly = true) work to the replicas, round robin,
+ * and everything else to the primary. A read stays on the primary when:
+ *  - every replica lags more than allowed (see ReplicaLagMonitor),
+ *  - the chat behind it ran a read-write transaction within the
+ *    read-your-writes window, so an admin sees the quiz they just created,
+ *  - the caller asked for it with onPrimary(), e.g. to fill a long-lived cache.
+ * With no replicas configured every connection comes from the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the routing decision is
+ * only correct once the transaction's read-only flag is set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final long readYourWritesMs;
+
+    // Last read-write transaction per chat
+    private final Map<TenantChat, Long> lastWrites = new ConcurrentHashMap<>();
+
+    // Configured order, and the subset currently fit to serve reads
+    private final List<String> replicas;
+    private final Set<String> usable = ConcurrentHashMap.newKeySet();
+    private volatile List<String> rotation;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    // Replicas by name, e.g. the pool names; iteration order is the rotation order
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+        this.replicas = List.copyOf(replicas.keySet());
+        this.usable.addAll(this.replicas);
+        this.rotation = this.replicas;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    // Runs `work` with every read on the primary, whatever the transaction says
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        TenantChat chat = TenantContext.currentChat();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (chat != null && !replicas.isEmpty() && TransactionSynchronizationManager.isActualTransactionActive()) {
+                lastWrites.put(chat, System.currentTimeMillis());
+            }
+            return PRIMARY;
+        }
+
+        List<String> candidates = rotation;
+
+        if (candidates.isEmpty() || FORCE_PRIMARY.get() != null || recentlyWrote(chat)) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+
+        replicaReads.increment();
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    private boolean recentlyWrote(TenantChat chat) {
+
+        if (chat == null) return false;
+
+        Long last = lastWrites.get(chat);
+        if (last == null) return false;
+
+        if (System.currentTimeMillis() - last > readYourWritesMs) {
+            lastWrites.remove(chat, last);
+            return false;
+        }
+        return true;
+    }
+
+    // ======================================================
+    // ================= REPLICA STATE ======================
+    // ======================================================
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public synchronized void setReplicaUsable(String replica, boolean fit) {
+
+        if (!replicas.contains(replica)) {
+            throw new IllegalArgumentException("Unknown replica: " + replica);
+        }
+
+        if (fit ? usable.add(replica) : usable.remove(replica)) {
+            rotation = replicas.stream().filter(usable::contains).toList();
+        }
+    }
+
+    public boolean isReplicaUsable(String replica) {
+        return usable.contains(replica);
+    }
+
+    // Drops chats whose read-your-writes window has passed
+    public void sweepWrites() {
+        long cutoff = System.currentTimeMillis() - readYourWritesMs;
+        lastWrites.values().removeIf(last -> last < cutoff);
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.telegrambot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Hikari pool for the primary (spring.datasource.*) and one per replica
+ * (spring.datasource.replica.url, comma-separated), behind a
+ * ReadWriteRoutingDataSource. Replica pools take spring.datasource.hikari.*
+ * like the primary, then any spring.datasource.replica.hikari.* overrides.
+ * JPA, JdbcTemplate and Flyway all get the routing proxy; Flyway and every
+ * write end up on the primary.
+ *
+ * Deliberately unconditional: the image is built with -Paot, which fixes
+ * the set of beans at build time. The replica list is read when the pools
+ * are created at runtime, and with none configured every read passes
+ * through to the primary.
+ */
+@Configuration
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    public DataSourcePools dataSourcePools(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                           Environment environment,
+                                           MeterRegistry meterRegistry) {
+
+        List<String> urls = replicaUrls(environment);
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, replicaPool(environment, name, urls.get(i), meterRegistry));
+        }
+
+        return new DataSourcePools(primary, replicas);
+    }
+
+    private static List<String> replicaUrls(Environment environment) {
+        return Arrays.stream(environment.getProperty("spring.datasource.replica.url", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    private static HikariDataSource replicaPool(Environment environment, String name, String url,
+                                                MeterRegistry meterRegistry) {
+
+        HikariDataSource pool = new HikariDataSource();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        binder.bind("spring.datasource.replica.hikari", Bindable.ofInstance(pool));
+
+        pool.setPoolName(name);
+        pool.setDriverClassName(environment.getProperty("spring.datasource.driver-class-name"));
+        pool.setJdbcUrl(url);
+        pool.setUsername(environment.getProperty("spring.datasource.replica.username",
+                environment.getProperty("spring.datasource.username")));
+        pool.setPassword(environment.getProperty("spring.datasource.replica.password",
+                environment.getProperty("spring.datasource.password")));
+        pool.setReadOnly(true);
+        // Not a bean, so Boot's pool metrics don't see it
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourcePools pools,
+                                                       @Value("${spring.datasource.replica.read-your-writes-ms:10000}") long readYourWritesMs,
+                                                       MeterRegistry meterRegistry) {
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                pools.primary(), new LinkedHashMap<String, DataSource>(pools.replicas()), readYourWritesMs);
+
+        Gauge.builder("db.routing.reads", routing, ReadWriteRoutingDataSource::getReplicaReads)
+                .tag("target", "replica").register(meterRegistry);
+        Gauge.builder("db.routing.reads", routing, ReadWriteRoutingDataSource::getPrimaryReads)
+                .tag("target", "primary").register(meterRegistry);
+
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.telegrambot.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes each replica out of rotation while it lags more than max-lag-ms or
+ * cannot be reached. Caught up means having replayed up to the primary's
+ * current WAL position, read just before; a standby that stopped receiving
+ * WAL therefore falls behind even though nothing is left to replay locally.
+ * A plain database (e.g. a local stand-in for tests) reports no lag.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    // -1 when behind with nothing replayed yet, so the lag is unknown
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, -1) END";
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ReadWriteRoutingDataSource routing;
+    private final long maxLagMs;
+
+    private final Map<String, Long> lagMs = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             ReadWriteRoutingDataSource routing,
+                             @Value("${spring.datasource.replica.max-lag-ms:5000}") long maxLagMs) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.routing = routing;
+        this.maxLagMs = maxLagMs;
+
+        for (String name : routing.getReplicas()) {
+            replicas.put(name, new JdbcTemplate(routing.getResolvedDataSources().get(name)));
+        }
+    }
+
+    @Scheduled(fixedDelay = 2000)
+    public void check() {
+
+        if (replicas.isEmpty()) return;
+
+        String primaryLsn;
+
+        try {
+            primaryLsn = primary.queryForObject(PRIMARY_LSN_SQL, String.class);
+        } catch (Exception e) {
+            // Nothing to compare against; keep the last verdicts
+            System.err.println("⚠️ Replica lag check skipped, primary unreachable: " + e.getMessage());
+            return;
+        }
+
+        replicas.forEach((name, replica) -> check(name, replica, primaryLsn));
+        routing.sweepWrites();
+    }
+
+    private void check(String name, JdbcTemplate replica, String primaryLsn) {
+
+        long lag;
+        boolean usable;
+
+        try {
+            Double measured = replica.queryForObject(LAG_SQL, Double.class, primaryLsn);
+            lag = measured == null ? -1 : measured.longValue();
+            usable = lag >= 0 && lag <= maxLagMs;
+        } catch (Exception e) {
+            lag = -1;
+            usable = false;
+        }
+
+        lagMs.put(name, lag);
+
+        if (usable != routing.isReplicaUsable(name)) {
+            System.out.println(usable
+                    ? "✅ Replica " + name + " caught up (" + lag + " ms), reads go to it again"
+                    : "⚠️ Replica " + name + " lagging or down (" + lag + " ms), taken out of rotation");
+        }
+        routing.setReplicaUsable(name, usable);
+    }
+
+    public Map<String, Long> getLagMs() {
+        return Map.copyOf(lagMs);
+    }
+}
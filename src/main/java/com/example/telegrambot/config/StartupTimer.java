@@ -0,0 +1,38 @@
+package com.example.telegrambot.config;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs startup phases relative to JVM start, ending with the first handled
+ * update. Compare runs with and without the CDS archive / AOT to benchmark.
+ */
+@Component
+public class StartupTimer {
+
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean firstUpdateSeen = new AtomicBoolean();
+
+    private volatile long firstUpdateMs = -1;
+
+    public void mark(String phase) {
+        System.out.println("⏱️ " + phase + ": " + sinceJvmStart() + " ms after JVM start");
+    }
+
+    public void firstUpdateHandled() {
+        if (firstUpdateSeen.compareAndSet(false, true)) {
+            firstUpdateMs = sinceJvmStart();
+            System.out.println("⏱️ First update handled: " + firstUpdateMs + " ms after JVM start");
+        }
+    }
+
+    public long getFirstUpdateMs() {
+        return firstUpdateMs;
+    }
+
+    private long sinceJvmStart() {
+        return System.currentTimeMillis() - jvmStart;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.telegrambot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+
+@Configuration
+public class TelegramConfig {
+
+    // Base URL is configurable so the bot can be pointed at a local fake API
+    @Bean
+    public DefaultBotOptions botOptions(@Value("${telegram.bot.base-url}") String baseUrl) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(baseUrl);
+        return options;
+    }
+}
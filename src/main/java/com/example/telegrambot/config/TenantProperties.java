@@ -0,0 +1,39 @@
+package com.example.telegrambot.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional multi-bot configuration:
+ *
+ * telegram:
+ *   tenants:
+ *     - id: math
+ *       token: ...
+ *       username: ...
+ *       root-admin-ids: 1,2
+ *
+ * When empty, the single bot from telegram.bot.* is used.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "telegram")
+public class TenantProperties {
+
+    private List<Tenant> tenants = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Tenant {
+        private String id;
+        private String token;
+        private String username;
+        private String rootAdminIds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class TenantRegistry {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    public TenantRegistry(TenantProperties properties,
+                          @Value("${telegram.bot.token:}") String token,
+                          @Value("${telegram.bot.username:}") String username,
+                          @Value("${telegram.bot.root-admin-ids:}") String rootAdminIds) {
+
+        if (properties.getTenants().isEmpty()) {
+            Tenant single = new Tenant();
+            single.setId(DEFAULT_TENANT);
+            single.setToken(token);
+            single.setUsername(username);
+            single.setRootAdminIds(rootAdminIds);
+            tenants.put(DEFAULT_TENANT, single);
+            return;
+        }
+
+        for (Tenant tenant : properties.getTenants()) {
+            if (tenant.getId() == null || tenants.put(tenant.getId(), tenant) != null) {
+                throw new IllegalStateException("Every tenant needs a unique id: " + tenant.getId());
+            }
+        }
+    }
+
+    public Collection<Tenant> all() {
+        return Collections.unmodifiableCollection(tenants.values());
+    }
+
+    public Tenant get(String tenantId) {
+        return tenants.get(tenantId);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.telegrambot.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,12 +10,15 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "admins")
+@IdClass(TenantChatId.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AdminEntity {
 
+    @Id
+    private String tenantId;
+
     @Id
     private Long chatId;
 }
-
@@ -0,0 +1,27 @@
+package com.example.telegrambot.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "bot_users")
+@IdClass(TenantChatId.class)
+public class BotUserEntity {
+
+    @Id
+    private String tenantId;
+
+    @Id
+    private Long chatId;
+
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+}
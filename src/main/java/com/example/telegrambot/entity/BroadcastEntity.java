@@ -0,0 +1,34 @@
+package com.example.telegrambot.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "broadcasts")
+public class BroadcastEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String tenantId;
+    private Long quizId;
+    private Long requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    private BroadcastStatus status = BroadcastStatus.RUNNING;
+
+    // Checkpoint: last chatId that was fully dispatched
+    private Long lastChatId;
+
+    private long sentCount;
+    private long failedCount;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime finishedAt;
+}
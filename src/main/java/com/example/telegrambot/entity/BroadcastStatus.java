@@ -0,0 +1,7 @@
+package com.example.telegrambot.entity;
+
+public enum BroadcastStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
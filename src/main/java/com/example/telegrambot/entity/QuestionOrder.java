@@ -0,0 +1,7 @@
+package com.example.telegrambot.entity;
+
+public enum QuestionOrder {
+    SEQUENTIAL,
+    SHUFFLED,
+    ADAPTIVE
+}
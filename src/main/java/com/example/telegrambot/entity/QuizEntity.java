@@ -15,8 +15,18 @@ public class QuizEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Bot this quiz belongs to
+    private String tenantId;
+
     private String title;
     private Long createdBy;
     private boolean active = true;
+
+    @Enumerated(EnumType.STRING)
+    private QuestionOrder questionOrder = QuestionOrder.SHUFFLED;
+
+    // Edit one message per session instead of sending one per question
+    private boolean singleMessage;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 }
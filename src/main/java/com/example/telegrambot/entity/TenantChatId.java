@@ -0,0 +1,17 @@
+package com.example.telegrambot.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Composite key for per-bot chat tables (admins, bot_users)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantChatId implements Serializable {
+
+    private String tenantId;
+    private Long chatId;
+}
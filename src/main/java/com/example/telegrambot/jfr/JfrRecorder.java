@@ -0,0 +1,212 @@
+package com.example.telegrambot.jfr;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.exception.BadRequestException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * /jfr start|status|dump|stop for root admins. The recording only enables
+ * the bot's own events and is bounded by age and size, so it can stay on in
+ * production while a problem is reproduced. A dump is sent to the admin as
+ * a document and deleted right after; only one dump exists at a time.
+ * The recording spans every bot in the JVM, so only the root admins of one
+ * tenant may drive it.
+ */
+@Component
+public class JfrRecorder {
+
+    private static final List<String> EVENTS = List.of(
+            UpdateHandledEvent.NAME,
+            QuizServiceEvent.NAME,
+            RepositoryCallEvent.NAME,
+            OutboundSendEvent.NAME);
+
+    // Bot API limit for uploaded documents
+    private static final long MAX_UPLOAD_BYTES = 50L * 1024 * 1024;
+    private static final String DUMP_GLOB = "telegrambot-*.jfr";
+
+    private final TelegramSender sender;
+    private final String tenantId;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDir;
+
+    private final ExecutorService uploads = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean dumping = new AtomicBoolean();
+
+    private Recording recording;
+
+    public JfrRecorder(TelegramSender sender,
+                       @Value("${telegram.jfr.tenant:default}") String tenantId,
+                       @Value("${telegram.jfr.max-age:10m}") Duration maxAge,
+                       @Value("${telegram.jfr.max-size-mb:32}") long maxSizeMb,
+                       @Value("${telegram.jfr.dump-dir:${java.io.tmpdir}}") String dumpDir) {
+
+        // The size cap is approximate (whole chunks are kept), leave headroom under the upload limit
+        if (maxSizeMb * 1024 * 1024 > MAX_UPLOAD_BYTES * 4 / 5) {
+            throw new IllegalStateException("telegram.jfr.max-size-mb=" + maxSizeMb
+                    + " would not fit a Telegram upload, use at most " + MAX_UPLOAD_BYTES * 4 / 5 / (1024 * 1024));
+        }
+
+        this.sender = sender;
+        this.tenantId = tenantId;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.dumpDir = Path.of(dumpDir);
+    }
+
+    // Dumps survive only a crash in the middle of an upload
+    @PostConstruct
+    public void removeLeftoverDumps() {
+
+        if (!Files.isDirectory(dumpDir)) return;
+
+        try (DirectoryStream<Path> dumps = Files.newDirectoryStream(dumpDir, DUMP_GLOB)) {
+            for (Path dump : dumps) {
+                Files.deleteIfExists(dump);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not clean up JFR dumps in " + dumpDir + ": " + e.getMessage());
+        }
+    }
+
+    // Tenant whose root admins may drive the recording
+    public boolean isControlledBy(String tenantId) {
+        return this.tenantId.equals(tenantId);
+    }
+
+    public synchronized String status() {
+
+        if (recording == null) {
+            return "🎥 No recording. Start one with /jfr start";
+        }
+
+        return "🎥 Recording " + recording.getState().name().toLowerCase()
+                + " since " + recording.getStartTime()
+                + "\nSize: " + recording.getSize() / 1024 + " KB (max " + maxSizeBytes / (1024 * 1024) + " MB)"
+                + "\nMax age: " + maxAge;
+    }
+
+    public synchronized String start() {
+
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+
+        recording = new Recording();
+        recording.setName("telegrambot");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        EVENTS.forEach(name -> recording.enable(name).withoutStackTrace());
+        recording.start();
+
+        System.out.println("🎥 JFR recording started (max " + maxAge + ", " + maxSizeBytes / (1024 * 1024) + " MB)");
+        return status();
+    }
+
+    // Writes the recording to disk and uploads it to the admin in the background.
+    // With stop, the recording is closed once it is written.
+    public synchronized void dump(String tenantId, Long adminId, boolean stop) {
+
+        if (recording == null) {
+            throw new BadRequestException("No recording, start one with /jfr start");
+        }
+
+        if (!dumping.compareAndSet(false, true)) {
+            throw new BadRequestException("A dump is still being sent, try again shortly.");
+        }
+
+        uploads.submit(() -> {
+            try {
+                upload(tenantId, adminId, stop);
+            } finally {
+                dumping.set(false);
+            }
+        });
+    }
+
+    private void upload(String tenantId, Long adminId, boolean stop) {
+
+        Path file = dumpDir.resolve("telegrambot-" + System.currentTimeMillis() + ".jfr");
+
+        try {
+            Files.createDirectories(dumpDir);
+            if (!write(file, stop)) {
+                report(tenantId, adminId, "🎥 Nothing to send, the recording was already stopped.");
+                return;
+            }
+
+            long size = Files.size(file);
+            if (size > MAX_UPLOAD_BYTES) {
+                report(tenantId, adminId, "⚠️ Dump is " + size / (1024 * 1024)
+                        + " MB, over Telegram's upload limit. Lower telegram.jfr.max-size-mb or max-age.");
+                return;
+            }
+
+            sender.sendDocument(tenantId, SendDocument.builder()
+                    .chatId(adminId.toString())
+                    .document(new InputFile(file.toFile(), file.getFileName().toString()))
+                    .build());
+
+            System.out.println("🎥 JFR dump of " + size / 1024 + " KB sent to " + adminId);
+
+        } catch (Exception e) {
+            System.err.println("❌ JFR dump failed: " + e.getMessage());
+            report(tenantId, adminId, "❌ JFR dump failed.");
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not delete " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized boolean write(Path file, boolean stop) throws IOException {
+
+        if (recording == null) return false;
+
+        recording.dump(file);
+        if (stop) {
+            recording.close();
+            recording = null;
+            System.out.println("🎥 JFR recording stopped");
+        }
+        return true;
+    }
+
+    private void report(String tenantId, Long adminId, String text) {
+        sender.sendAsync(tenantId, SendMessage.builder()
+                .chatId(adminId.toString())
+                .text(text)
+                .build());
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        uploads.shutdownNow();
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.telegrambot.jfr;
+
+import com.example.telegrambot.service.QuizService;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps QuizService and every Spring Data repository so each call emits a
+ * JFR event. While the events are disabled (the default) the interceptor
+ * only checks isEnabled() and proceeds.
+ */
+@Component
+public class JfrTracingPostProcessor implements BeanPostProcessor {
+
+    // Method -> index of its chatId parameter, -1 when there is none
+    private final Map<Method, Integer> chatIdIndex = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (QuizService.class.isAssignableFrom(AopUtils.getTargetClass(bean))) {
+            return advise(bean, quizServiceInterceptor());
+        }
+
+        if (bean instanceof Repository<?, ?>) {
+            return advise(bean, repositoryInterceptor(beanName));
+        }
+
+        return bean;
+    }
+
+    private Object advise(Object bean, MethodInterceptor interceptor) {
+
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return factory.getProxy();
+    }
+
+    private MethodInterceptor quizServiceInterceptor() {
+        return invocation -> {
+
+            QuizServiceEvent event = new QuizServiceEvent();
+            if (!event.isEnabled()) return invocation.proceed();
+
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable t) {
+                event.failed = true;
+                throw t;
+            } finally {
+                if (event.shouldCommit()) {
+                    Method method = invocation.getMethod();
+                    int index = chatIdIndex.computeIfAbsent(method, this::findChatId);
+                    event.operation = method.getName();
+                    event.chatId = index >= 0 && invocation.getArguments()[index] instanceof Long id
+                            ? id
+                            : contextChatId();
+                    event.updateType = TenantContext.currentUpdateType();
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    private MethodInterceptor repositoryInterceptor(String beanName) {
+        return invocation -> {
+
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) return invocation.proceed();
+
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable t) {
+                event.failed = true;
+                throw t;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.operation = beanName + "." + invocation.getMethod().getName();
+                    event.chatId = contextChatId();
+                    event.updateType = TenantContext.currentUpdateType();
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    private long contextChatId() {
+        TenantChat chat = TenantContext.currentChat();
+        return chat == null ? 0 : chat.chatId();
+    }
+
+    // Relies on -parameters, which the Spring Boot parent turns on
+    private int findChatId(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getName().equals("chatId")) return i;
+        }
+        return -1;
+    }
+}
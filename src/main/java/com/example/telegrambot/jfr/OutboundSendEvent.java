@@ -0,0 +1,39 @@
+package com.example.telegrambot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Covers waiting for the rate limiter and 429 pauses, not just the HTTP call
+@Name(OutboundSendEvent.NAME)
+@Label("Outbound Send")
+@Category({"Telegram Bot", "Outbound"})
+@Enabled(false)
+@StackTrace(false)
+public class OutboundSendEvent extends Event {
+
+    public static final String NAME = "telegrambot.OutboundSend";
+
+    @Label("Tenant")
+    public String tenantId;
+
+    // Bot API method, e.g. sendMessage
+    @Label("Method")
+    public String method;
+
+    // Chat whose update is being handled, 0 in background jobs
+    @Label("Chat Id")
+    public long chatId;
+
+    @Label("Update Type")
+    public String updateType;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Failed")
+    public boolean failed;
+}
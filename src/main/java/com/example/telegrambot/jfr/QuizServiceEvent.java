@@ -0,0 +1,31 @@
+package com.example.telegrambot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(QuizServiceEvent.NAME)
+@Label("Quiz Service Call")
+@Category({"Telegram Bot", "Service"})
+@Enabled(false)
+@StackTrace(false)
+public class QuizServiceEvent extends Event {
+
+    public static final String NAME = "telegrambot.QuizServiceCall";
+
+    @Label("Operation")
+    public String operation;
+
+    // The chatId argument, else the chat whose update is being handled; 0 in background jobs
+    @Label("Chat Id")
+    public long chatId;
+
+    @Label("Update Type")
+    public String updateType;
+
+    @Label("Failed")
+    public boolean failed;
+}
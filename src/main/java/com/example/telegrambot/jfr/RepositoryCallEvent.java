@@ -0,0 +1,32 @@
+package com.example.telegrambot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Category({"Telegram Bot", "Database"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    public static final String NAME = "telegrambot.RepositoryCall";
+
+    // repositoryBean.method
+    @Label("Operation")
+    public String operation;
+
+    // Chat whose update is being handled, 0 in background jobs
+    @Label("Chat Id")
+    public long chatId;
+
+    @Label("Update Type")
+    public String updateType;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,28 @@
+package com.example.telegrambot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(UpdateHandledEvent.NAME)
+@Label("Update Handled")
+@Category({"Telegram Bot", "Updates"})
+@Enabled(false)
+@StackTrace(false)
+public class UpdateHandledEvent extends Event {
+
+    public static final String NAME = "telegrambot.UpdateHandled";
+
+    @Label("Tenant")
+    public String tenantId;
+
+    @Label("Chat Id")
+    public long chatId;
+
+    // "message /start", "callback ANS_", "inline"
+    @Label("Update Type")
+    public String updateType;
+}
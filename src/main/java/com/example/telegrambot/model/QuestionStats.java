@@ -0,0 +1,21 @@
+package com.example.telegrambot.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class QuestionStats {
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder correct = new LongAdder();
+
+    public void record(boolean wasCorrect) {
+        attempts.increment();
+        if (wasCorrect) {
+            correct.increment();
+        }
+    }
+
+    // Laplace-smoothed so unseen questions start at 0.5
+    public double accuracy() {
+        return (correct.sum() + 1.0) / (attempts.sum() + 2.0);
+    }
+}
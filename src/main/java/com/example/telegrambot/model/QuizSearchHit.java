@@ -0,0 +1,4 @@
+package com.example.telegrambot.model;
+
+public record QuizSearchHit(Long quizId, String title, long takes) {
+}
@@ -1,7 +1,11 @@
 package com.example.telegrambot.repository;
 
 import com.example.telegrambot.entity.AdminEntity;
+import com.example.telegrambot.entity.TenantChatId;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface AdminRepository extends JpaRepository<AdminEntity, Long> {
+import java.util.List;
+
+public interface AdminRepository extends JpaRepository<AdminEntity, TenantChatId> {
+    List<AdminEntity> findByTenantId(String tenantId);
 }
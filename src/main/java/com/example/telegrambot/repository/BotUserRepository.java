@@ -0,0 +1,20 @@
+package com.example.telegrambot.repository;
+
+import com.example.telegrambot.entity.BotUserEntity;
+import com.example.telegrambot.entity.TenantChatId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BotUserRepository extends JpaRepository<BotUserEntity, TenantChatId> {
+
+    // Keyset cursor: never OFFSET, so every page costs the same
+    @Query("select u.chatId from BotUserEntity u " +
+            "where u.tenantId = :tenantId and u.chatId > :after order by u.chatId asc")
+    List<Long> findChatIdsAfter(@Param("tenantId") String tenantId,
+                                @Param("after") Long after,
+                                Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.example.telegrambot.repository;
+
+import com.example.telegrambot.entity.BroadcastEntity;
+import com.example.telegrambot.entity.BroadcastStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BroadcastRepository extends JpaRepository<BroadcastEntity, Long> {
+    List<BroadcastEntity> findByStatus(BroadcastStatus status);
+
+    // Takes a running broadcast nobody holds a live lease on; 1 if this instance got it
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE broadcasts SET owner = :owner, " +
+            "lease_until = now() + make_interval(secs => :leaseSeconds) " +
+            "WHERE id = :id AND status = 'RUNNING' AND (lease_until IS NULL OR lease_until < now())",
+            nativeQuery = true)
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    // Checkpoint and lease renewal in one statement; 0 means the lease was lost
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE broadcasts SET last_chat_id = :cursor, sent_count = :sent, failed_count = :failed, " +
+            "lease_until = now() + make_interval(secs => :leaseSeconds) " +
+            "WHERE id = :id AND owner = :owner",
+            nativeQuery = true)
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("cursor") Long cursor,
+                   @Param("sent") long sent, @Param("failed") long failed,
+                   @Param("leaseSeconds") long leaseSeconds);
+
+    // Gives the broadcast up on shutdown so another instance can claim it right away
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE broadcasts SET owner = NULL, lease_until = NULL WHERE id = :id AND owner = :owner",
+            nativeQuery = true)
+    int release(@Param("id") Long id, @Param("owner") String owner);
+}
@@ -2,12 +2,21 @@ package com.example.telegrambot.repository;
 
 import com.example.telegrambot.entity.QuestionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<QuestionEntity, Long> {
     List<QuestionEntity> findByQuizId(Long quizId);
     List<QuestionEntity> findByQuizIdOrderByIdAsc(Long quizId);
+    List<QuestionEntity> findByQuizIdInOrderByQuizIdAscIdAsc(Collection<Long> quizIds);
 
-    void deleteByQuizId(Long quizId);
+    // Single bulk DELETE instead of loading every entity first
+    @Modifying
+    @Query("delete from QuestionEntity q where q.quizId = :quizId")
+    int deleteByQuizId(@Param("quizId") Long quizId);
 
 }
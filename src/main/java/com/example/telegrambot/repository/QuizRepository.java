@@ -1,9 +1,45 @@
 package com.example.telegrambot.repository;
 
 import com.example.telegrambot.entity.QuizEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
 
 public interface QuizRepository extends JpaRepository<QuizEntity, Long> {
     List<QuizEntity> findByActiveTrue();
+
+    List<QuizEntity> findTop50ByActiveTrueOrderByIdDesc();
+
+    // Served by the partial index idx_quizzes_tenant_active_id
+    Page<QuizEntity> findByTenantIdAndActiveTrue(String tenantId, Pageable pageable);
+
+    // [quizId, finished attempts]; an index-only scan of idx_quiz_results_tenant_quiz_id
+    @Query(value = "SELECT quiz_id, count(*) FROM quiz_results GROUP BY tenant_id, quiz_id", nativeQuery = true)
+    List<Object[]> countResultsByQuiz();
+
+    // [version, quizId, settled] from the V9 change log, oldest first. A change is
+    // settled once it is a minute old: by then any lower version has committed too
+    @Query(value = "SELECT version, quiz_id, changed_at < clock_timestamp() - interval '1 minute' " +
+            "FROM quiz_content_changes WHERE version > :since ORDER BY version", nativeQuery = true)
+    List<Object[]> findContentChangesSince(@Param("since") long since);
+
+    @Query(value = "SELECT COALESCE(MIN(version), 0) FROM quiz_content_changes", nativeQuery = true)
+    long oldestContentChange();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM quiz_content_changes WHERE changed_at < now() - interval '7 days'",
+            nativeQuery = true)
+    int pruneContentChanges();
+
+    // Questions go with it through ON DELETE CASCADE
+    @Modifying
+    @Query("delete from QuizEntity q where q.id = :id and q.tenantId = :tenantId")
+    int deleteQuizById(@Param("id") Long id, @Param("tenantId") String tenantId);
 }
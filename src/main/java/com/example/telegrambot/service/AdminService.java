@@ -1,57 +1,102 @@
 package com.example.telegrambot.service;
 
+import com.example.telegrambot.config.ReadWriteRoutingDataSource;
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import com.example.telegrambot.config.TenantRegistry;
 import com.example.telegrambot.entity.AdminEntity;
+import com.example.telegrambot.entity.TenantChatId;
 import com.example.telegrambot.repository.AdminRepository;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
 
     private final AdminRepository repo;
+    private final TenantRegistry tenantRegistry;
 
-    @Value("${telegram.bot.root-admin-ids}")
-    private String rootAdmins;
+    // Root admins per tenant, from configuration
+    private final Map<String, Set<Long>> rootAdminSets = new HashMap<>();
 
-    private Set<Long> rootAdminSet;
+    // DB admins of every tenant, filled by warmUp(); until then isAdmin falls back to the DB.
+    // Good enough for menus; actions go through isAdminUncached
+    private final Set<TenantChat> adminCache = ConcurrentHashMap.newKeySet();
+    private volatile boolean cacheLoaded;
 
-    public AdminService(AdminRepository repo) {
+    public AdminService(AdminRepository repo, TenantRegistry tenantRegistry) {
         this.repo = repo;
+        this.tenantRegistry = tenantRegistry;
     }
 
     @PostConstruct
     public void init() {
-        rootAdminSet = Arrays.stream(rootAdmins.split(","))
-                .map(String::trim)
-                .map(Long::parseLong)
-                .collect(Collectors.toSet());
+        for (Tenant tenant : tenantRegistry.all()) {
+            String ids = tenant.getRootAdminIds() == null ? "" : tenant.getRootAdminIds();
+            rootAdminSets.put(tenant.getId(), Arrays.stream(ids.split(","))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(Long::parseLong)
+                    .collect(Collectors.toSet()));
+        }
     }
 
-    // Anyone who is root OR in DB is admin
+    // Refresh periodically so admins changed on another instance show up
+    @Scheduled(initialDelay = 10000, fixedDelay = 10000)
+    public void warmUp() {
+        Set<TenantChat> ids = new HashSet<>();
+        // A lagging replica would drop a just-added admin from the cache again
+        ReadWriteRoutingDataSource.onPrimary(repo::findAll)
+                .forEach(a -> ids.add(new TenantChat(a.getTenantId(), a.getChatId())));
+
+        adminCache.retainAll(ids);
+        adminCache.addAll(ids);
+        cacheLoaded = true;
+    }
+
+    // Anyone who is root OR in DB is admin (of the current bot)
     public boolean isAdmin(Long chatId) {
-        return rootAdminSet.contains(chatId) || repo.existsById(chatId);
+        if (isRootAdmin(chatId)) return true;
+        return cacheLoaded
+                ? adminCache.contains(TenantChat.of(chatId))
+                : repo.existsById(new TenantChatId(TenantContext.current(), chatId));
+    }
+
+    // For privileged actions: an admin revoked on another instance loses
+    // access at once instead of at the next cache refresh
+    public boolean isAdminUncached(Long chatId) {
+        if (isRootAdmin(chatId)) return true;
+        TenantChatId id = new TenantChatId(TenantContext.current(), chatId);
+        boolean admin = ReadWriteRoutingDataSource.onPrimary(() -> repo.existsById(id));
+        if (!admin) {
+            adminCache.remove(TenantChat.of(chatId));
+        }
+        return admin;
     }
 
     // Only hardcoded admins
     public boolean isRootAdmin(Long chatId) {
-        return rootAdminSet.contains(chatId);
+        return rootAdminSets.getOrDefault(TenantContext.current(), Set.of()).contains(chatId);
     }
 
     // Only root admins should call this
     public void addAdmin(Long chatId) {
-        repo.save(new AdminEntity(chatId));
+        repo.save(new AdminEntity(TenantContext.current(), chatId));
+        adminCache.add(TenantChat.of(chatId));
     }
 
     public void removeAdmin(Long chatId) {
-        repo.deleteById(chatId);
+        repo.deleteById(new TenantChatId(TenantContext.current(), chatId));
+        adminCache.remove(TenantChat.of(chatId));
     }
 
     public List<AdminEntity> getAllAdmins() {
-        return repo.findAll();
+        return repo.findByTenantId(TenantContext.current());
     }
 }
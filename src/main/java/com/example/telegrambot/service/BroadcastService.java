@@ -0,0 +1,285 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.config.ReadWriteRoutingDataSource;
+import com.example.telegrambot.entity.BroadcastEntity;
+import com.example.telegrambot.entity.BroadcastStatus;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.exception.BadRequestException;
+import com.example.telegrambot.repository.BotUserRepository;
+import com.example.telegrambot.repository.BroadcastRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class BroadcastService {
+
+    private static final int BATCH_SIZE = 500;
+
+    // The last checkpoint is a single UPDATE; it gets this long even past the drain deadline
+    private static final long CHECKPOINT_GRACE_MS = 2000;
+
+    private enum Outcome { SENT, FAILED, CANCELLED }
+
+    // Identifies this instance as the owner of the broadcasts it sends
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName()
+            + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final long leaseSeconds;
+
+    private final BroadcastRepository broadcastRepository;
+    private final BotUserRepository userRepository;
+    private final QuizRepository quizRepository;
+    private final TelegramSender sender;
+
+    // One broadcast at a time; the sender's rate limit is global anyway
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor();
+
+    // Set on shutdown: jobs stop sending and keep their checkpoint
+    private volatile boolean paused;
+
+    public BroadcastService(BroadcastRepository broadcastRepository,
+                            BotUserRepository userRepository,
+                            QuizRepository quizRepository,
+                            TelegramSender sender,
+                            @Value("${telegram.broadcast.lease-seconds:120}") long leaseSeconds) {
+        this.broadcastRepository = broadcastRepository;
+        this.userRepository = userRepository;
+        this.quizRepository = quizRepository;
+        this.sender = sender;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    // ======================================================
+    // ================= START / RESUME =====================
+    // ======================================================
+
+    public BroadcastEntity startBroadcast(Long quizId, Long adminId) {
+
+        String tenantId = TenantContext.current();
+
+        boolean ownQuiz = quizRepository.findById(quizId)
+                .map(q -> tenantId.equals(q.getTenantId()))
+                .orElse(false);
+
+        if (!ownQuiz) {
+            throw new BadRequestException("Quiz not found.");
+        }
+
+        BroadcastEntity broadcast = new BroadcastEntity();
+        broadcast.setTenantId(tenantId);
+        broadcast.setQuizId(quizId);
+        broadcast.setRequestedBy(adminId);
+        broadcast = broadcastRepository.save(broadcast);
+
+        // While shutting down it stays unclaimed for another instance to pick up
+        if (!paused && broadcastRepository.claim(broadcast.getId(), owner, leaseSeconds) == 1) {
+            submit(broadcast);
+        }
+        return broadcast;
+    }
+
+    // Picks up broadcasts whose owner stopped renewing its lease (restart or
+    // crash), from their last checkpoint. Every instance tries; the claim
+    // lets exactly one of them resume each broadcast.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = 60000, fixedDelay = 60000)
+    public void resumeInterrupted() {
+
+        if (paused) return;
+
+        List<BroadcastEntity> running = ReadWriteRoutingDataSource.onPrimary(
+                () -> broadcastRepository.findByStatus(BroadcastStatus.RUNNING));
+
+        for (BroadcastEntity candidate : running) {
+
+            if (broadcastRepository.claim(candidate.getId(), owner, leaseSeconds) != 1) continue;
+
+            // Re-read after the claim so the checkpoint is the latest one
+            BroadcastEntity broadcast = ReadWriteRoutingDataSource.onPrimary(
+                    () -> broadcastRepository.findById(candidate.getId()).orElse(null));
+            if (broadcast == null) continue;
+
+            System.out.println("📣 Resuming broadcast #" + broadcast.getId()
+                    + " after chatId " + broadcast.getLastChatId());
+            submit(broadcast);
+        }
+    }
+
+    private void submit(BroadcastEntity broadcast) {
+        jobs.submit(() -> {
+            try {
+                TenantContext.run(broadcast.getTenantId(), () -> run(broadcast));
+            } catch (Exception e) {
+                if (paused) {
+                    // Not the broadcast's fault: leave it RUNNING for the next owner
+                    System.err.println("⚠️ Broadcast #" + broadcast.getId() + " stopped by shutdown: " + e);
+                    return;
+                }
+                e.printStackTrace();
+                broadcast.setStatus(BroadcastStatus.FAILED);
+                broadcast.setFinishedAt(LocalDateTime.now());
+                broadcastRepository.save(broadcast);
+            }
+        });
+    }
+
+    // ======================================================
+    // ================= JOB ================================
+    // ======================================================
+
+    void run(BroadcastEntity broadcast) {
+
+        QuizEntity quiz = quizRepository.findById(broadcast.getQuizId()).orElse(null);
+
+        if (quiz == null) {
+            broadcast.setStatus(BroadcastStatus.FAILED);
+            broadcast.setFinishedAt(LocalDateTime.now());
+            broadcastRepository.save(broadcast);
+            return;
+        }
+
+        long sent = broadcast.getSentCount();
+        long failed = broadcast.getFailedCount();
+        long sentAtStart = sent;
+        long startedAt = System.currentTimeMillis();
+
+        Long cursor = broadcast.getLastChatId() == null ? Long.MIN_VALUE : broadcast.getLastChatId();
+
+        while (!paused && !Thread.currentThread().isInterrupted()) {
+
+            List<Long> chatIds = userRepository.findChatIdsAfter(
+                    broadcast.getTenantId(), cursor, PageRequest.of(0, BATCH_SIZE));
+            if (chatIds.isEmpty()) break;
+
+            List<CompletableFuture<Outcome>> inFlight = new ArrayList<>(chatIds.size());
+
+            for (Long chatId : chatIds) {
+                inFlight.add(paused
+                        ? CompletableFuture.completedFuture(Outcome.CANCELLED)
+                        : sender.sendAsync(announcement(chatId, quiz)).handle((result, ex) -> outcome(ex)));
+            }
+
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+
+            // Only the delivered prefix counts: sends cancelled by a shutdown
+            // are neither failures nor behind the checkpoint, so they go out on resume
+            int settled = 0;
+            for (; settled < chatIds.size(); settled++) {
+                Outcome outcome = inFlight.get(settled).join();
+                if (outcome == Outcome.CANCELLED) break;
+                if (outcome == Outcome.SENT) sent++;
+                else failed++;
+            }
+
+            if (settled > 0) {
+                // Checkpoint after the batch is settled, renewing the lease
+                cursor = chatIds.get(settled - 1);
+                broadcast.setLastChatId(cursor);
+                broadcast.setSentCount(sent);
+                broadcast.setFailedCount(failed);
+
+                if (broadcastRepository.checkpoint(broadcast.getId(), owner, cursor,
+                        sent, failed, leaseSeconds) == 0) {
+                    System.err.println("⚠️ Lost the lease on broadcast #" + broadcast.getId() + ", stopping");
+                    return;
+                }
+            }
+
+            if (settled < chatIds.size()) break;
+        }
+
+        if (paused || Thread.currentThread().isInterrupted()) {
+            // Leave RUNNING so another instance resumes from the checkpoint
+            broadcastRepository.release(broadcast.getId(), owner);
+            System.out.println("⏸ Broadcast #" + broadcast.getId() + " paused after chatId " + broadcast.getLastChatId());
+            return;
+        }
+
+        broadcast.setStatus(BroadcastStatus.COMPLETED);
+        broadcast.setFinishedAt(LocalDateTime.now());
+        broadcastRepository.save(broadcast);
+
+        double seconds = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+        double rate = (sent - sentAtStart) / seconds;
+
+        String report = String.format("📣 Broadcast #%d finished%nSent: %d%nFailed: %d%nRate: %.1f msg/s",
+                broadcast.getId(), sent, failed, rate);
+
+        System.out.println(report);
+        sender.sendAsync(SendMessage.builder()
+                .chatId(broadcast.getRequestedBy().toString())
+                .text(report)
+                .build());
+    }
+
+    private static Outcome outcome(Throwable ex) {
+        if (ex == null) return Outcome.SENT;
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof CancellationException ? Outcome.CANCELLED : Outcome.FAILED;
+    }
+
+    private SendMessage announcement(Long chatId, QuizEntity quiz) {
+
+        InlineKeyboardButton start = new InlineKeyboardButton("▶️ Start Quiz");
+        start.setCallbackData("QUIZ_" + quiz.getId());
+
+        return SendMessage.builder()
+                .chatId(chatId.toString())
+                .text("🆕 New quiz is live: " + quiz.getTitle())
+                .replyMarkup(new InlineKeyboardMarkup(List.of(List.of(start))))
+                .build();
+    }
+
+    // ======================================================
+    // ================= SHUTDOWN ===========================
+    // ======================================================
+
+    // Called before the sender drains: no new sends are queued from here on
+    public void pause() {
+        paused = true;
+    }
+
+    // Called after the sender drained, so the running job can checkpoint
+    // what was delivered and give up its lease
+    public void awaitPaused(long deadlineNanos) {
+
+        jobs.shutdown();
+        long waitNanos = Math.max(deadlineNanos - System.nanoTime(),
+                TimeUnit.MILLISECONDS.toNanos(CHECKPOINT_GRACE_MS));
+        try {
+            if (!jobs.awaitTermination(waitNanos, TimeUnit.NANOSECONDS)) {
+                System.err.println("⚠️ Broadcast job did not pause in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+    }
+}
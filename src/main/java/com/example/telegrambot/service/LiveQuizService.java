@@ -0,0 +1,296 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.exception.BadRequestException;
+import com.example.telegrambot.exception.QuizStateException;
+import com.example.telegrambot.repository.QuestionRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.LiveRoom;
+import com.example.telegrambot.session.LiveRound;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class LiveQuizService {
+
+    private static final int SCOREBOARD_SIZE = 10;
+    // Rooms nobody started are dropped after this long
+    static final long IDLE_ROOM_TIMEOUT_MS = 30 * 60 * 1000;
+    private static final String[] LETTERS = {"A", "B", "C", "D"};
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final TelegramSender sender;
+
+    private final Map<Long, LiveRoom> rooms = new ConcurrentHashMap<>();
+    private final Map<TenantChat, Long> playerRooms = new ConcurrentHashMap<>();
+    private final AtomicLong roomIds = new AtomicLong();
+
+    // Round clock shared by all rooms
+    private final ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor();
+
+    @Value("${quiz.live.round-seconds:20}")
+    private int roundSeconds;
+
+    @Value("${quiz.live.pause-seconds:3}")
+    private int pauseSeconds;
+
+    public LiveQuizService(QuizRepository quizRepository,
+                           QuestionRepository questionRepository,
+                           TelegramSender sender) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.sender = sender;
+    }
+
+    // ======================================================
+    // ================= ROOM LIFECYCLE =====================
+    // ======================================================
+
+    public LiveRoom createRoom(Long quizId, Long hostChatId) {
+
+        List<QuestionEntity> questions = quizRepository.findById(quizId)
+                .filter(q -> TenantContext.current().equals(q.getTenantId()))
+                .map(q -> questionRepository.findByQuizIdOrderByIdAsc(quizId))
+                .orElse(List.of());
+
+        if (questions.isEmpty()) {
+            throw new BadRequestException("Quiz has no questions.");
+        }
+
+        LiveRoom room = new LiveRoom(roomIds.incrementAndGet(), TenantContext.current(),
+                quizId, hostChatId, questions);
+        rooms.put(room.getId(), room);
+        return room;
+    }
+
+    public LiveRoom join(Long roomId, Long chatId, String name) {
+
+        LiveRoom room = room(roomId);
+
+        if (room == null) {
+            throw new BadRequestException("Live room not found.");
+        }
+
+        room.addPlayer(chatId, name);
+        Long previous = playerRooms.put(TenantChat.of(chatId), roomId);
+
+        // A player is in one room at a time: stop the old room's messages
+        if (previous != null && !previous.equals(roomId)) {
+            LiveRoom old = rooms.get(previous);
+            if (old != null) {
+                old.removePlayer(chatId);
+            }
+        }
+        return room;
+    }
+
+    public void start(Long roomId, Long chatId) {
+
+        LiveRoom room = room(roomId);
+
+        if (room == null) {
+            throw new BadRequestException("Live room not found.");
+        }
+
+        if (!room.getHostChatId().equals(chatId)) {
+            throw new QuizStateException("Only the host can start this room.");
+        }
+
+        if (room.getPlayers().isEmpty()) {
+            throw new QuizStateException("No players have joined yet.");
+        }
+
+        if (!room.markStarted()) {
+            throw new QuizStateException("Room already started.");
+        }
+
+        openRound(room, 0);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void expireIdleRooms() {
+        expireIdleRooms(System.currentTimeMillis());
+    }
+
+    void expireIdleRooms(long now) {
+
+        for (LiveRoom room : new ArrayList<>(rooms.values())) {
+
+            if (room.isStarted() || now - room.getCreatedAt() <= IDLE_ROOM_TIMEOUT_MS) continue;
+
+            if (rooms.remove(room.getId(), room)) {
+                releasePlayers(room);
+                sender.sendAsync(room.getTenantId(), SendMessage.builder()
+                        .chatId(room.getHostChatId().toString())
+                        .text("⌛ Live room #" + room.getId() + " expired before it was started.")
+                        .build());
+            }
+        }
+    }
+
+    // ======================================================
+    // ================= ANSWERS ============================
+    // ======================================================
+
+    // Lock-free: safe for a burst of thousands of LIVE_ANS_ callbacks at once.
+    // Buttons carry their room and round, so taps on an old question are rejected.
+    public boolean submitAnswer(Long chatId, Long roomId, int roundIndex, int selected) {
+
+        LiveRoom room = roomId.equals(playerRooms.get(TenantChat.of(chatId))) ? rooms.get(roomId) : null;
+
+        if (room == null) {
+            throw new QuizStateException("You are not in this live room.");
+        }
+
+        LiveRound round = room.getCurrentRound();
+
+        if (round == null || round.getIndex() != roundIndex || !round.submit(chatId, selected)) {
+            return false;
+        }
+
+        if (round.getQuestion().getCorrectIndex() == selected) {
+            room.addPoint(chatId);
+        }
+        return true;
+    }
+
+    // ======================================================
+    // ================= ROUND CLOCK ========================
+    // ======================================================
+
+    private void openRound(LiveRoom room, int index) {
+
+        if (index >= room.getQuestions().size()) {
+            finish(room);
+            return;
+        }
+
+        QuestionEntity q = room.getQuestions().get(index);
+        LiveRound round = new LiveRound(index, q);
+        room.setCurrentRound(round);
+
+        String text = "🔴 Live • Question " + (index + 1) + "/" + room.getQuestions().size()
+                + " (" + roundSeconds + "s)\n❓ " + q.getQuestion();
+
+        String prefix = "LIVE_ANS_" + room.getId() + "_" + index + "_";
+        InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup(List.of(
+                List.of(btn(q.getOption1(), prefix + 0)),
+                List.of(btn(q.getOption2(), prefix + 1)),
+                List.of(btn(q.getOption3(), prefix + 2)),
+                List.of(btn(q.getOption4(), prefix + 3))
+        ));
+
+        // The clock starts once the question has been handed to every player,
+        // so a large room does not eat into the answer window of late recipients
+        fanOut(room, text, keyboard).whenComplete((ignored, ex) ->
+                clock.schedule(() -> closeRound(room, round), roundSeconds, TimeUnit.SECONDS));
+    }
+
+    private void closeRound(LiveRoom room, LiveRound round) {
+
+        round.close();
+
+        QuestionEntity q = round.getQuestion();
+        StringBuilder sb = new StringBuilder("⏱️ Time's up!\n");
+        sb.append("Correct answer: ").append(LETTERS[q.getCorrectIndex()]).append("\n");
+
+        for (int i = 0; i < LETTERS.length; i++) {
+            sb.append(LETTERS[i]).append(": ").append(round.count(i));
+            sb.append(i < LETTERS.length - 1 ? " | " : "\n\n");
+        }
+
+        sb.append(scoreboard(room));
+
+        fanOut(room, sb.toString(), null);
+
+        clock.schedule(() -> openRound(room, round.getIndex() + 1),
+                pauseSeconds, TimeUnit.SECONDS);
+    }
+
+    private void finish(LiveRoom room) {
+
+        room.setCurrentRound(null);
+        fanOut(room, "🏁 Live quiz finished!\n\n" + scoreboard(room), null);
+
+        rooms.remove(room.getId());
+        releasePlayers(room);
+    }
+
+    private void releasePlayers(LiveRoom room) {
+        room.getPlayers().forEach(chatId ->
+                playerRooms.remove(new TenantChat(room.getTenantId(), chatId), room.getId()));
+    }
+
+    private String scoreboard(LiveRoom room) {
+
+        StringBuilder sb = new StringBuilder("🏆 Scoreboard\n");
+        int[] rank = {1};
+
+        room.getScores().entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(SCOREBOARD_SIZE)
+                .forEach(e -> sb.append(rank[0]++).append(". ")
+                        .append(room.nameOf(e.getKey())).append(" — ").append(e.getValue()).append("\n"));
+
+        if (rank[0] == 1) {
+            sb.append("No points yet.\n");
+        }
+        return sb.toString();
+    }
+
+    // ======================================================
+    // ================= FAN-OUT ============================
+    // ======================================================
+
+    private CompletableFuture<Void> fanOut(LiveRoom room, String text, ReplyKeyboard keyboard) {
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(room.getPlayers().size());
+
+        for (Long chatId : room.getPlayers()) {
+            futures.add(sender.sendAsync(room.getTenantId(), SendMessage.builder()
+                    .chatId(chatId.toString())
+                    .text(text)
+                    .replyMarkup(keyboard)
+                    .build()));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    // Rooms of other bots are invisible
+    private LiveRoom room(Long roomId) {
+        LiveRoom room = rooms.get(roomId);
+        return room != null && room.getTenantId().equals(TenantContext.current()) ? room : null;
+    }
+
+    private InlineKeyboardButton btn(String text, String data) {
+        InlineKeyboardButton b = new InlineKeyboardButton(text);
+        b.setCallbackData(data);
+        return b;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clock.shutdownNow();
+    }
+}
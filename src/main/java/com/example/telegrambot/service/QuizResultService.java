@@ -0,0 +1,133 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.session.TenantChat;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+public class QuizResultService {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Ids are drawn up front so answers can reference their result in the same batch
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval('quiz_results_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_results (id, tenant_id, quiz_id, chat_id, score, total, finished_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ANSWER_SQL =
+            "INSERT INTO quiz_result_answers (result_id, question_id, selected, correct) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Finished attempts waiting for the next flush
+    private final Queue<Result> pending = new ConcurrentLinkedQueue<>();
+
+    public record Answer(long questionId, int selected, boolean correct) {
+    }
+
+    private record Result(String tenantId, long quizId, long chatId, int score, int total, Timestamp finishedAt,
+                          List<Answer> answers) {
+    }
+
+    private record ResultRow(long id, Result result) {
+    }
+
+    private record AnswerRow(long resultId, Answer answer) {
+    }
+
+    public QuizResultService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Called when a quiz finishes: no DB access here
+    public void record(TenantChat chat, long quizId, int score, int total, List<Answer> answers) {
+        pending.add(new Result(chat.tenantId(), quizId, chat.chatId(), score, total,
+                new Timestamp(System.currentTimeMillis()), List.copyOf(answers)));
+    }
+
+    // ======================================================
+    // ================= BATCHED INSERT =====================
+    // ======================================================
+
+    @Scheduled(fixedDelay = 5000)
+    public void flush() {
+
+        List<Result> batch = new ArrayList<>(BATCH_SIZE);
+        Result result;
+
+        while ((result = pending.poll()) != null) {
+            batch.add(result);
+
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+    }
+
+    private void insert(List<Result> results) {
+        try {
+            // Results and their answers land together or not at all
+            transactionTemplate.executeWithoutResult(status -> {
+
+                List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, results.size());
+                List<ResultRow> rows = new ArrayList<>(results.size());
+                List<AnswerRow> answers = new ArrayList<>();
+
+                for (int i = 0; i < results.size(); i++) {
+                    rows.add(new ResultRow(ids.get(i), results.get(i)));
+                    for (Answer answer : results.get(i).answers()) {
+                        answers.add(new AnswerRow(ids.get(i), answer));
+                    }
+                }
+
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    Result r = row.result();
+                    ps.setLong(1, row.id());
+                    ps.setString(2, r.tenantId());
+                    ps.setLong(3, r.quizId());
+                    ps.setLong(4, r.chatId());
+                    ps.setInt(5, r.score());
+                    ps.setInt(6, r.total());
+                    ps.setTimestamp(7, r.finishedAt());
+                });
+
+                if (!answers.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answers, BATCH_SIZE, (ps, row) -> {
+                        ps.setLong(1, row.resultId());
+                        ps.setLong(2, row.answer().questionId());
+                        ps.setShort(3, (short) row.answer().selected());
+                        ps.setBoolean(4, row.answer().correct());
+                    });
+                }
+            });
+        } catch (Exception e) {
+            // Keep them so the next flush retries
+            pending.addAll(results);
+            System.err.println("⚠️ Quiz result flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
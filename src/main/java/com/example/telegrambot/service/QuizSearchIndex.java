@@ -0,0 +1,203 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.model.QuizSearchHit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory title index, per tenant.
+ * Each word of a title is indexed by its 1- and 2-char prefixes ("^a", "^ab")
+ * and by its trigrams. A query token of 1-2 chars matches word prefixes,
+ * longer tokens must contain all of their trigrams; candidates from the
+ * smallest posting set are then checked against the title. Hits are ranked
+ * by how often the quiz was taken: finished attempts in the database as of
+ * the last rebuild, plus starts on this instance since then.
+ */
+@Component
+public class QuizSearchIndex {
+
+    // Swapped whole by rebuild()
+    private volatile Map<String, Map<String, Set<Long>>> postings = new ConcurrentHashMap<>();
+    private volatile Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final String tenantId;
+        private final String title;
+        private final String normalized;
+        private final long seededTakes;
+        private final LongAdder takes = new LongAdder();
+
+        private Entry(String tenantId, String title, long seededTakes) {
+            this.tenantId = tenantId;
+            this.title = title;
+            this.normalized = normalize(title);
+            this.seededTakes = seededTakes;
+        }
+
+        private long takes() {
+            return seededTakes + takes.sum();
+        }
+    }
+
+    // ======================================================
+    // ================= UPDATES ============================
+    // ======================================================
+
+    public void add(QuizEntity quiz) {
+        add(quiz, 0, entries, postings);
+    }
+
+    // Replaces the whole index, e.g. with quizzes created or deleted on other
+    // instances and take counts (quizId -> count) from the database
+    public void rebuild(List<QuizEntity> quizzes, Map<Long, Long> takes) {
+
+        Map<Long, Entry> newEntries = new ConcurrentHashMap<>();
+        Map<String, Map<String, Set<Long>>> newPostings = new ConcurrentHashMap<>();
+
+        for (QuizEntity quiz : quizzes) {
+            add(quiz, takes.getOrDefault(quiz.getId(), 0L), newEntries, newPostings);
+        }
+
+        entries = newEntries;
+        postings = newPostings;
+    }
+
+    private static void add(QuizEntity quiz, long takes,
+                            Map<Long, Entry> entries, Map<String, Map<String, Set<Long>>> postings) {
+
+        if (quiz.getTitle() == null) return;
+
+        Entry entry = new Entry(quiz.getTenantId(), quiz.getTitle(), takes);
+        entries.put(quiz.getId(), entry);
+
+        Map<String, Set<Long>> tenantPostings =
+                postings.computeIfAbsent(entry.tenantId, t -> new ConcurrentHashMap<>());
+
+        for (String gram : titleGrams(entry.normalized)) {
+            tenantPostings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(quiz.getId());
+        }
+    }
+
+    public void remove(Long quizId) {
+
+        Entry entry = entries.remove(quizId);
+        if (entry == null) return;
+
+        Map<String, Set<Long>> tenantPostings = postings.get(entry.tenantId);
+        if (tenantPostings == null) return;
+
+        for (String gram : titleGrams(entry.normalized)) {
+            Set<Long> ids = tenantPostings.get(gram);
+            if (ids != null) ids.remove(quizId);
+        }
+    }
+
+    public void recordTake(Long quizId) {
+        Entry entry = entries.get(quizId);
+        if (entry != null) {
+            entry.takes.increment();
+        }
+    }
+
+    // ======================================================
+    // ================= QUERY ==============================
+    // ======================================================
+
+    public List<QuizSearchHit> search(String tenantId, String query, int limit) {
+
+        Map<Long, Entry> entries = this.entries;
+        Map<String, Set<Long>> tenantPostings = postings.get(tenantId);
+        if (tenantPostings == null) return List.of();
+
+        List<String> tokens = words(normalize(query));
+        if (tokens.isEmpty()) return List.of();
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String token : tokens) {
+            for (String gram : queryGrams(token)) {
+                Set<Long> ids = tenantPostings.get(gram);
+                if (ids == null || ids.isEmpty()) return List.of();
+                lists.add(ids);
+            }
+        }
+
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<QuizSearchHit> hits = new ArrayList<>();
+
+        candidates:
+        for (Long id : lists.get(0)) {
+
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) continue candidates;
+            }
+
+            Entry entry = entries.get(id);
+            if (entry == null) continue;
+
+            for (String token : tokens) {
+                if (!entry.normalized.contains(token)) continue candidates;
+            }
+
+            hits.add(new QuizSearchHit(id, entry.title, entry.takes()));
+        }
+
+        hits.sort(Comparator.comparingLong(QuizSearchHit::takes).reversed()
+                .thenComparing(QuizSearchHit::quizId, Comparator.reverseOrder()));
+
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    // ======================================================
+    // ================= GRAMS ==============================
+    // ======================================================
+
+    private static Set<String> titleGrams(String normalized) {
+
+        Set<String> grams = new LinkedHashSet<>();
+
+        for (String word : words(normalized)) {
+            grams.add("^" + word.charAt(0));
+            if (word.length() >= 2) grams.add("^" + word.substring(0, 2));
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                grams.add(word.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> queryGrams(String token) {
+
+        if (token.length() < 3) {
+            return Set.of("^" + token);
+        }
+
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+}
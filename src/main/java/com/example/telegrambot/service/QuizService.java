@@ -1,58 +1,92 @@
 package com.example.telegrambot.service;
 
+import com.example.telegrambot.config.ReadWriteRoutingDataSource;
 import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuestionOrder;
 import com.example.telegrambot.entity.QuizEntity;
 import com.example.telegrambot.exception.BadRequestException;
 import com.example.telegrambot.exception.QuizStateException;
+import com.example.telegrambot.model.QuestionStats;
+import com.example.telegrambot.model.QuizSearchHit;
+import com.example.telegrambot.model.QuizQuestion;
 import com.example.telegrambot.repository.QuestionRepository;
 import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.IndexPermutation;
+import com.example.telegrambot.session.QuizSession;
+import com.example.telegrambot.session.TenantChat;
+import com.example.telegrambot.session.TenantContext;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import jakarta.annotation.PostConstruct;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class QuizService {
 
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
+    private final QuizSearchIndex searchIndex;
+    private final QuizSnapshotStore snapshotStore;
+    private final QuizResultService resultService;
 
-    // Runtime user sessions (in-memory)
-    private final Map<Long, List<QuestionEntity>> userQuestions = new ConcurrentHashMap<>();
-    private final Map<Long, Integer> userIndex = new ConcurrentHashMap<>();
-    private final Map<Long, Integer> userScore = new ConcurrentHashMap<>();
+    // Runtime user sessions (in-memory), isolated per bot
+    private final Map<TenantChat, QuizSession> sessions = new ConcurrentHashMap<>();
 
-    // Track last activity per user
-    private final Map<Long, Long> lastActivity = new ConcurrentHashMap<>();
+    // Question arrays shared by every session of the same quiz, for quizzes the snapshot can't serve
+    private final Map<Long, QuizContent> quizContent = new ConcurrentHashMap<>();
+
+    // Per-question accuracy, drives ADAPTIVE ordering
+    private final Map<Long, QuestionStats> questionStats = new ConcurrentHashMap<>();
 
     // Session timeout (10 minutes)
-    private static final long SESSION_TIMEOUT_MS = 10 * 60 * 1000;
+    static final long SESSION_TIMEOUT_MS = 10 * 60 * 1000;
+
+    private static final int OPTION_COUNT = 4;
+
+    // How many upcoming questions ADAPTIVE picks from
+    private static final int ADAPTIVE_WINDOW = 8;
+
+    private record QuizContent(String tenantId,
+                               QuestionOrder order,
+                               boolean singleMessage,
+                               List<QuestionEntity> questions) {
+    }
 
     public QuizService(QuizRepository quizRepository,
-                       QuestionRepository questionRepository) {
+                       QuestionRepository questionRepository,
+                       QuizSearchIndex searchIndex,
+                       QuizSnapshotStore snapshotStore,
+                       QuizResultService resultService) {
         this.quizRepository = quizRepository;
         this.questionRepository = questionRepository;
+        this.searchIndex = searchIndex;
+        this.snapshotStore = snapshotStore;
+        this.resultService = resultService;
+
+        // Once a quiz is in the snapshot its heap copy is dead weight
+        snapshotStore.onRebuilt(() -> quizContent.keySet().removeIf(snapshotStore::contains));
     }
 
     // ======================================================
     // ================= SESSION TRACKING ===================
     // ======================================================
 
-    private void touch(Long chatId) {
-        lastActivity.put(chatId, System.currentTimeMillis());
+    private void touch(QuizSession session) {
+        session.setLastActivity(System.currentTimeMillis());
     }
 
     private void clearSession(Long chatId) {
-        userQuestions.remove(chatId);
-        userIndex.remove(chatId);
-        userScore.remove(chatId);
-        lastActivity.remove(chatId);
+        sessions.remove(TenantChat.of(chatId));
     }
 
     // Auto cleanup every 2 minutes
@@ -61,24 +95,106 @@ public class QuizService {
 
         long now = System.currentTimeMillis();
 
-        for (Long chatId : new HashSet<>(lastActivity.keySet())) {
+        for (TenantChat key : new HashSet<>(sessions.keySet())) {
 
-            long lastSeen = lastActivity.get(chatId);
+            QuizSession session = sessions.get(key);
 
-            if (now - lastSeen > SESSION_TIMEOUT_MS) {
-                System.out.println("🧹 Cleaning stale session: " + chatId);
-                clearSession(chatId);
+            if (session != null && now - session.getLastActivity() > SESSION_TIMEOUT_MS) {
+                System.out.println("🧹 Cleaning stale session: " + key.tenantId() + "/" + key.chatId());
+                sessions.remove(key);
             }
         }
     }
 
+    // ======================================================
+    // ================= SHARED QUIZ CONTENT ================
+    // ======================================================
+
+    // Never call with a lock held: a miss goes to the database
+    private QuizContent content(Long quizId) {
+
+        QuizContent cached = quizContent.get(quizId);
+        if (cached != null) return cached;
+
+        // Served straight from the mapping, never copied onto the heap
+        QuizSnapshotFile.Quiz snapshot = snapshotStore.find(quizId);
+        if (snapshot != null) {
+            return new QuizContent(
+                    snapshot.tenantId(), snapshot.order(), snapshot.singleMessage(), snapshot.questions());
+        }
+
+        // One load per quiz however many players start it at once; other
+        // quizzes load in parallel. A null result (miss) is not cached.
+        QuizContent loaded = quizContent.computeIfAbsent(quizId, this::load);
+        return loaded != null ? loaded : new QuizContent(null, QuestionOrder.SHUFFLED, false, List.of());
+    }
+
+    private QuizContent load(Long quizId) {
+
+        // Cached until the next edit, so never fill it from a lagging replica
+        QuizEntity quiz = ReadWriteRoutingDataSource.onPrimary(
+                () -> quizRepository.findById(quizId).orElse(null));
+        QuestionOrder order = quiz == null ? null : quiz.getQuestionOrder();
+
+        List<QuestionEntity> questions = List.copyOf(ReadWriteRoutingDataSource.onPrimary(
+                () -> questionRepository.findByQuizIdOrderByIdAsc(quizId)));
+
+        // Don't cache misses, the quiz may still be under construction
+        if (quiz == null || questions.isEmpty()) {
+            return null;
+        }
+
+        return new QuizContent(
+                quiz.getTenantId(),
+                order == null ? QuestionOrder.SHUFFLED : order,
+                quiz.isSingleMessage(),
+                questions);
+    }
+
+    // Preload the newest active quizzes (all tenants) so first takers skip the DB
+    public void warmUp() {
+        for (QuizEntity quiz : quizRepository.findTop50ByActiveTrueOrderByIdDesc()) {
+            content(quiz.getId());
+        }
+    }
+
+    // Also refreshed periodically: picks up quizzes created or deleted on
+    // other instances and takes recorded by all of them
+    @Scheduled(initialDelay = 600000, fixedDelay = 600000)
+    public void warmUpSearchIndex() {
+
+        Map<Long, Long> takes = new HashMap<>();
+        for (Object[] row : quizRepository.countResultsByQuiz()) {
+            takes.merge(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        searchIndex.rebuild(quizRepository.findByActiveTrue(), takes);
+    }
+
+    private void evictContent(Long quizId) {
+        quizContent.remove(quizId);
+        snapshotStore.markDirty(quizId);
+
+        // A rebuild may have read the old row before the commit; mark it again once visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quizContent.remove(quizId);
+                    snapshotStore.markDirty(quizId);
+                }
+            });
+        }
+    }
+
     // ======================================================
     // ================= PAGINATION =========================
     // ======================================================
 
     @CircuitBreaker(name = "quizService", fallbackMethod = "quizPageFallback")
     public Page<QuizEntity> getQuizPage(int page, int size) {
-        return quizRepository.findAll(PageRequest.of(page, size));
+        return quizRepository.findByTenantIdAndActiveTrue(
+                TenantContext.current(), PageRequest.of(page, size, Sort.by("id")));
     }
 
     public Page<QuizEntity> quizPageFallback(int page, int size, Throwable ex) {
@@ -86,6 +202,14 @@ public class QuizService {
         return Page.empty();
     }
 
+    // ======================================================
+    // ================= SEARCH =============================
+    // ======================================================
+
+    public List<QuizSearchHit> searchQuizzes(String query, int limit) {
+        return searchIndex.search(TenantContext.current(), query, limit);
+    }
+
     // ======================================================
     // ================= CREATE QUIZ ========================
     // ======================================================
@@ -94,11 +218,14 @@ public class QuizService {
     public QuizEntity createQuiz(String title, Long adminId) {
 
         QuizEntity quiz = new QuizEntity();
+        quiz.setTenantId(TenantContext.current());
         quiz.setTitle(title);
         quiz.setCreatedBy(adminId);
         quiz.setActive(true);
 
-        return quizRepository.save(quiz);
+        QuizEntity saved = quizRepository.save(quiz);
+        searchIndex.add(saved);
+        return saved;
     }
 
     public QuizEntity createQuizFallback(String title, Long adminId, Throwable ex) {
@@ -128,6 +255,7 @@ public class QuizService {
         q.setCorrectIndex(correctIndex);
 
         questionRepository.save(q);
+        evictContent(quizId);
     }
 
     public void addQuestionFallback(Long quizId,
@@ -148,14 +276,57 @@ public class QuizService {
     @Transactional
     @CircuitBreaker(name = "quizService", fallbackMethod = "deleteQuizFallback")
     public void deleteQuiz(Long quizId) {
-        questionRepository.deleteByQuizId(quizId);
-        quizRepository.deleteById(quizId);
+        if (quizRepository.deleteQuizById(quizId, TenantContext.current()) > 0) {
+            searchIndex.remove(quizId);
+        }
+        evictContent(quizId);
     }
 
     public void deleteQuizFallback(Long quizId, Throwable ex) {
         throw new RuntimeException("🚨 Unable to delete quiz right now.");
     }
 
+    // ======================================================
+    // ================= QUESTION ORDER =====================
+    // ======================================================
+
+    @Transactional
+    public void setQuestionOrder(Long quizId, QuestionOrder order) {
+
+        QuizEntity quiz = ownQuiz(quizId);
+
+        quiz.setQuestionOrder(order);
+        quizRepository.save(quiz);
+        evictContent(quizId);
+    }
+
+    // Callers must be read-write @Transactional: the read then joins their
+    // transaction on the primary instead of going to a lagging replica
+    private QuizEntity ownQuiz(Long quizId) {
+        return quizRepository.findById(quizId)
+                .filter(q -> TenantContext.current().equals(q.getTenantId()))
+                .orElseThrow(() -> new BadRequestException("Quiz not found."));
+    }
+
+    // ======================================================
+    // ================= MESSAGE MODE =======================
+    // ======================================================
+
+    @Transactional
+    public void setSingleMessage(Long quizId, boolean singleMessage) {
+
+        QuizEntity quiz = ownQuiz(quizId);
+
+        quiz.setSingleMessage(singleMessage);
+        quizRepository.save(quiz);
+        evictContent(quizId);
+    }
+
+    public boolean isSingleMessage(Long chatId) {
+        QuizSession session = sessions.get(TenantChat.of(chatId));
+        return session != null && session.isSingleMessage();
+    }
+
     // ======================================================
     // ================= START QUIZ =========================
     // ======================================================
@@ -163,17 +334,28 @@ public class QuizService {
     @CircuitBreaker(name = "quizService", fallbackMethod = "startQuizFallback")
     public void startQuiz(Long chatId, Long quizId) {
 
-        List<QuestionEntity> questions =
-                questionRepository.findByQuizIdOrderByIdAsc(quizId);
+        QuizContent content = content(quizId);
 
-        if (questions.isEmpty()) {
+        // Another bot's quiz looks like an empty one
+        if (content.questions().isEmpty() || !TenantContext.current().equals(content.tenantId())) {
             throw new BadRequestException("Quiz has no questions.");
         }
 
-        userQuestions.put(chatId, questions);
-        userIndex.put(chatId, 0);
-        userScore.put(chatId, 0);
-        touch(chatId);
+        QuizSession session = new QuizSession();
+        session.setQuizId(quizId);
+        session.setOrder(content.order());
+        session.setSingleMessage(content.singleMessage());
+        session.setSeed(ThreadLocalRandom.current().nextLong());
+        session.setSize(content.questions().size());
+        session.setAnswers(new byte[session.getSize()]);
+
+        if (content.order() == QuestionOrder.ADAPTIVE) {
+            session.setServed(new BitSet(session.getSize()));
+        }
+
+        touch(session);
+        sessions.put(TenantChat.of(chatId), session);
+        searchIndex.recordTake(quizId);
     }
 
     public void startQuizFallback(Long chatId, Long quizId, Throwable ex) {
@@ -185,63 +367,171 @@ public class QuizService {
     // ======================================================
 
     @CircuitBreaker(name = "quizService", fallbackMethod = "getNextQuestionFallback")
-    public synchronized QuestionEntity getNextQuestion(Long chatId) {
-
-        touch(chatId);
+    public QuizQuestion getNextQuestion(Long chatId) {
 
-        Integer index = userIndex.get(chatId);
-        List<QuestionEntity> questions = userQuestions.get(chatId);
+        QuizSession session = sessions.get(TenantChat.of(chatId));
 
-        if (index == null || questions == null) {
+        if (session == null) {
             return null;
         }
 
-        if (index >= questions.size()) {
-            return null;
-        }
+        touch(session);
+
+        List<QuestionEntity> questions = content(session.getQuizId()).questions();
+
+        // Only this chat's session is locked, e.g. against a double tap
+        synchronized (session) {
+
+            if (session.getCursor() >= session.getSize() || questions.size() < session.getSize()) {
+                return null;
+            }
 
-        userIndex.put(chatId, index + 1);
-        return questions.get(index);
+            int position = nextPosition(session, questions);
+            session.setCurrent(position);
+            session.setCursor(session.getCursor() + 1);
+
+            return render(session, questions.get(position), position);
+        }
     }
 
-    public QuestionEntity getNextQuestionFallback(Long chatId, Throwable ex) {
+    public QuizQuestion getNextQuestionFallback(Long chatId, Throwable ex) {
         return null;
     }
 
+    private int nextPosition(QuizSession session, List<QuestionEntity> questions) {
+
+        return switch (session.getOrder()) {
+            case SEQUENTIAL -> session.getCursor();
+            case SHUFFLED -> IndexPermutation.apply(session.getCursor(), session.getSize(), session.getSeed());
+            case ADAPTIVE -> adaptivePosition(session, questions);
+        };
+    }
+
+    // Among the next few unserved questions of the shuffled order, pick the one
+    // whose global accuracy best matches how well this player is doing:
+    // strong players get harder questions, struggling players easier ones.
+    private int adaptivePosition(QuizSession session, List<QuestionEntity> questions) {
+
+        BitSet served = session.getServed();
+        int size = session.getSize();
+
+        double playerAccuracy = session.getCursor() == 0
+                ? 0.5
+                : (double) session.getScore() / session.getCursor();
+        double target = 0.8 - 0.6 * playerAccuracy;
+
+        int bestRank = -1;
+        int bestPosition = -1;
+        double bestDistance = Double.MAX_VALUE;
+
+        int rank = served.nextClearBit(0);
+        for (int seen = 0; seen < ADAPTIVE_WINDOW && rank < size; seen++) {
+
+            int position = IndexPermutation.apply(rank, size, session.getSeed());
+            double distance = Math.abs(accuracy(questions.get(position)) - target);
+
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestRank = rank;
+                bestPosition = position;
+            }
+
+            rank = served.nextClearBit(rank + 1);
+        }
+
+        served.set(bestRank);
+        return bestPosition;
+    }
+
+    private double accuracy(QuestionEntity question) {
+        QuestionStats stats = questionStats.get(question.getId());
+        return stats == null ? 0.5 : stats.accuracy();
+    }
+
+    // ======================================================
+    // ================= OPTION REMAP =======================
+    // ======================================================
+
+    // Displayed slot -> original option index (0..3), stable per session and question
+    private int originalOption(QuizSession session, int position, int slot) {
+
+        if (session.getOrder() == QuestionOrder.SEQUENTIAL) {
+            return slot;
+        }
+
+        long optionSeed = session.getSeed() ^ (position + 1L) * 0xD1B54A32D192ED03L;
+        return IndexPermutation.apply(slot, OPTION_COUNT, optionSeed);
+    }
+
+    private QuizQuestion render(QuizSession session, QuestionEntity q, int position) {
+
+        String[] original = {q.getOption1(), q.getOption2(), q.getOption3(), q.getOption4()};
+        List<String> options = new ArrayList<>(OPTION_COUNT);
+        int correctSlot = -1;
+
+        for (int slot = 0; slot < OPTION_COUNT; slot++) {
+            int index = originalOption(session, position, slot);
+            options.add(original[index]);
+            if (index == q.getCorrectIndex()) {
+                correctSlot = slot;
+            }
+        }
+
+        return new QuizQuestion(q.getQuestion(), options, correctSlot);
+    }
+
     // ======================================================
     // ================= CHECK ANSWER =======================
     // ======================================================
 
     @CircuitBreaker(name = "quizService", fallbackMethod = "checkAnswerFallback")
-    public synchronized boolean checkAnswer(Long chatId, int selected) {
+    public boolean checkAnswer(Long chatId, int selected) {
 
-        touch(chatId);
+        QuizSession session = sessions.get(TenantChat.of(chatId));
 
-        Integer index = userIndex.get(chatId);
-
-        if (index == null) {
+        if (session == null) {
             throw new QuizStateException("No active quiz session.");
         }
 
-        List<QuestionEntity> questions = userQuestions.get(chatId);
+        touch(session);
+
+        List<QuestionEntity> questions = content(session.getQuizId()).questions();
 
-        if (questions == null || questions.isEmpty()) {
+        if (questions.isEmpty()) {
             throw new QuizStateException("No questions loaded.");
         }
 
-        int currentIndex = index - 1;
-
-        if (currentIndex < 0 || currentIndex >= questions.size()) {
-            throw new QuizStateException("Invalid question state.");
+        if (selected < 0 || selected >= OPTION_COUNT) {
+            throw new BadRequestException("Invalid option.");
         }
 
-        QuestionEntity question = questions.get(currentIndex);
-        boolean correct = question.getCorrectIndex() == selected;
+        QuestionEntity question;
+        boolean correct;
+
+        synchronized (session) {
+
+            int position = session.getCurrent();
+
+            if (position < 0 || position >= questions.size()) {
+                throw new QuizStateException("Invalid question state.");
+            }
+
+            question = questions.get(position);
+            int option = originalOption(session, position, selected);
+            correct = question.getCorrectIndex() == option;
+
+            if (session.getAnswers() != null && position < session.getAnswers().length) {
+                session.getAnswers()[position] = (byte) (option + 1);
+            }
 
-        if (correct) {
-            userScore.put(chatId, userScore.getOrDefault(chatId, 0) + 1);
+            if (correct) {
+                session.setScore(session.getScore() + 1);
+            }
         }
 
+        // Shared across sessions, but lock-free
+        questionStats.computeIfAbsent(question.getId(), id -> new QuestionStats()).record(correct);
+
         return correct;
     }
 
@@ -254,10 +544,64 @@ public class QuizService {
     // ======================================================
 
     public int getScore(Long chatId) {
-        return userScore.getOrDefault(chatId, 0);
+        QuizSession session = sessions.get(TenantChat.of(chatId));
+        return session == null ? 0 : session.getScore();
     }
 
     public void reset(Long chatId) {
         clearSession(chatId);
     }
+
+    // Ends the session and records the attempt; returns the final score
+    public int finish(Long chatId) {
+
+        TenantChat key = TenantChat.of(chatId);
+        QuizSession session = sessions.remove(key);
+
+        if (session == null) return 0;
+
+        resultService.record(key, session.getQuizId(), session.getScore(), session.getSize(), answers(session));
+        return session.getScore();
+    }
+
+    private List<QuizResultService.Answer> answers(QuizSession session) {
+
+        byte[] picked = session.getAnswers();
+        if (picked == null) return List.of();
+
+        List<QuestionEntity> questions = content(session.getQuizId()).questions();
+        List<QuizResultService.Answer> answers = new ArrayList<>();
+
+        for (int position = 0; position < picked.length && position < questions.size(); position++) {
+            if (picked[position] == 0) continue;
+
+            QuestionEntity question = questions.get(position);
+            int option = picked[position] - 1;
+            answers.add(new QuizResultService.Answer(question.getId(), option, option == question.getCorrectIndex()));
+        }
+        return answers;
+    }
+
+    // ======================================================
+    // ================= HANDOFF ============================
+    // ======================================================
+
+    public Map<TenantChat, QuizSession> exportSessions() {
+        return new HashMap<>(sessions);
+    }
+
+    // Never overwrites a session the user already started on this instance
+    public int importSessions(Map<TenantChat, QuizSession> parked) {
+
+        long now = System.currentTimeMillis();
+        int restored = 0;
+
+        for (Map.Entry<TenantChat, QuizSession> entry : parked.entrySet()) {
+            if (now - entry.getValue().getLastActivity() > SESSION_TIMEOUT_MS) continue;
+            if (sessions.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                restored++;
+            }
+        }
+        return restored;
+    }
 }
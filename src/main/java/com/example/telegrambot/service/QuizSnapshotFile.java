@@ -0,0 +1,421 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuestionOrder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary, read-only image of quiz content, read through a MappedByteBuffer
+ * so it lives in the page cache rather than on the heap.
+ *
+ * Every quiz is a self-contained block, so a rebuild can copy the blocks of
+ * unchanged quizzes byte for byte from the previous file.
+ *
+ * Layout (big-endian):
+ *   header   magic, version, quizCount, changeVersion:8
+ *   index    [id:8][offset:4][length:4] per quiz, sorted by id
+ *   blocks   one per quiz:
+ *     [tenant:4][order:1][single:1][pad:2][questionCount:4][stringCount:4]
+ *     questions [id:8][text:4][option1..4:4x4], block string indices (-1 = null)
+ *     correct   correct option per question, 2 bits each
+ *     strings   (stringCount + 1) end offsets, then UTF-8 bytes
+ */
+public final class QuizSnapshotFile {
+
+    private static final int MAGIC = 0x515A5331; // "QZS1"
+    private static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = 3 * 4 + 8;
+    private static final int INDEX_RECORD = 16;
+    private static final int BLOCK_HEADER = 16;
+    private static final int QUESTION_RECORD = 8 + 5 * 4;
+
+    public record Quiz(long id,
+                       String tenantId,
+                       QuestionOrder order,
+                       boolean singleMessage,
+                       List<QuestionEntity> questions) {
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int quizCount;
+    private final long changeVersion;
+
+    private QuizSnapshotFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a quiz snapshot (or an older version)");
+        }
+
+        this.quizCount = buffer.getInt(8);
+        this.changeVersion = buffer.getLong(12);
+
+        if (quizCount < 0 || indexRecord(quizCount) > buffer.capacity()) {
+            throw new IllegalStateException("Truncated quiz snapshot");
+        }
+        for (int i = 0; i < quizCount; i++) {
+            int at = indexRecord(i);
+            if ((long) buffer.getInt(at + 8) + buffer.getInt(at + 12) > buffer.capacity()) {
+                throw new IllegalStateException("Truncated quiz snapshot");
+            }
+        }
+    }
+
+    // ======================================================
+    // ================= READ ===============================
+    // ======================================================
+
+    public static QuizSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new QuizSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return quizCount;
+    }
+
+    // Last quiz_content_changes version the content was read after
+    public long changeVersion() {
+        return changeVersion;
+    }
+
+    public boolean contains(long quizId) {
+        return indexOf(quizId) >= 0;
+    }
+
+    public Quiz find(long quizId) {
+        int index = indexOf(quizId);
+        return index < 0 ? null : read(index);
+    }
+
+    public List<Long> quizIds() {
+        List<Long> ids = new ArrayList<>(quizCount);
+        for (int i = 0; i < quizCount; i++) {
+            ids.add(buffer.getLong(indexRecord(i)));
+        }
+        return ids;
+    }
+
+    private int indexOf(long quizId) {
+
+        int low = 0;
+        int high = quizCount - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(indexRecord(mid));
+
+            if (id < quizId) low = mid + 1;
+            else if (id > quizId) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static int indexRecord(int index) {
+        return HEADER_SIZE + index * INDEX_RECORD;
+    }
+
+    private ByteBuffer block(int index) {
+        int at = indexRecord(index);
+        return buffer.slice(buffer.getInt(at + 8), buffer.getInt(at + 12));
+    }
+
+    // Questions are decoded on access, so a session only pays for what it shows
+    private Quiz read(int index) {
+
+        long id = buffer.getLong(indexRecord(index));
+        Block block = new Block(id, block(index));
+
+        List<QuestionEntity> questions = new AbstractList<>() {
+            @Override
+            public QuestionEntity get(int i) {
+                if (i < 0 || i >= block.questionCount) throw new IndexOutOfBoundsException(i);
+                return block.question(i);
+            }
+
+            @Override
+            public int size() {
+                return block.questionCount;
+            }
+        };
+
+        return new Quiz(id, block.string(block.data.getInt(0)),
+                QuestionOrder.values()[block.data.get(4)], block.data.get(5) != 0, questions);
+    }
+
+    private static final class Block {
+        private final long quizId;
+        private final ByteBuffer data;
+        private final int questionCount;
+        private final int correctStart;
+        private final int offsetsStart;
+        private final int stringsStart;
+
+        private Block(long quizId, ByteBuffer data) {
+            this.quizId = quizId;
+            this.data = data;
+            this.questionCount = data.getInt(8);
+            int stringCount = data.getInt(12);
+
+            this.correctStart = BLOCK_HEADER + questionCount * QUESTION_RECORD;
+            this.offsetsStart = correctStart + (questionCount + 3) / 4;
+            this.stringsStart = offsetsStart + (stringCount + 1) * 4;
+        }
+
+        private QuestionEntity question(int index) {
+
+            int at = BLOCK_HEADER + index * QUESTION_RECORD;
+
+            QuestionEntity q = new QuestionEntity();
+            q.setId(data.getLong(at));
+            q.setQuizId(quizId);
+            q.setQuestion(string(data.getInt(at + 8)));
+            q.setOption1(string(data.getInt(at + 12)));
+            q.setOption2(string(data.getInt(at + 16)));
+            q.setOption3(string(data.getInt(at + 20)));
+            q.setOption4(string(data.getInt(at + 24)));
+            q.setCorrectIndex((data.get(correctStart + index / 4) >> (index % 4 * 2)) & 3);
+            return q;
+        }
+
+        private String string(int index) {
+
+            if (index < 0) return null;
+
+            int start = data.getInt(offsetsStart + index * 4);
+            int end = data.getInt(offsetsStart + (index + 1) * 4);
+
+            byte[] bytes = new byte[end - start];
+            data.get(stringsStart + start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ======================================================
+    // ================= WRITE ==============================
+    // ======================================================
+
+    public static void write(Path path, Collection<Quiz> quizzes, boolean dedupStrings) throws IOException {
+        write(path, quizzes, dedupStrings, 0);
+    }
+
+    public static void write(Path path, Collection<Quiz> quizzes, boolean dedupStrings, long changeVersion)
+            throws IOException {
+
+        List<Quiz> sorted = new ArrayList<>(quizzes);
+        sorted.sort((a, b) -> Long.compare(a.id(), b.id()));
+
+        try (Writer writer = Writer.create(path, sorted.size(), dedupStrings)) {
+            for (Quiz quiz : sorted) {
+                writer.add(quiz);
+            }
+            writer.commit(changeVersion);
+        }
+    }
+
+    /**
+     * Streams a new snapshot to a sibling temp file, one quiz block at a time,
+     * and renames it into place on commit so readers never see a partial file.
+     * Quizzes must be added in ascending id order; capacity only has to be an
+     * upper bound on how many are added.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path tmp;
+        private final FileChannel channel;
+        private final int capacity;
+        private final boolean dedupStrings;
+        private final ByteBuffer index;
+
+        private int count;
+        private long lastId = Long.MIN_VALUE;
+        private long position;
+        private boolean committed;
+
+        private Writer(Path path, int capacity, boolean dedupStrings) throws IOException {
+            this.path = path;
+            this.tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.capacity = capacity;
+            this.dedupStrings = dedupStrings;
+            this.index = ByteBuffer.allocate(capacity * INDEX_RECORD);
+            this.position = indexRecord(capacity);
+
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        public static Writer create(Path path, int capacity, boolean dedupStrings) throws IOException {
+            return new Writer(path, capacity, dedupStrings);
+        }
+
+        public void add(Quiz quiz) throws IOException {
+            append(quiz.id(), ByteBuffer.wrap(encode(quiz, dedupStrings)));
+        }
+
+        // Byte-level copy of an unchanged quiz, nothing is decoded
+        public void copy(QuizSnapshotFile from, long quizId) throws IOException {
+
+            int at = from.indexOf(quizId);
+            if (at < 0) {
+                throw new IllegalArgumentException("Quiz " + quizId + " is not in the source snapshot");
+            }
+            append(quizId, from.block(at));
+        }
+
+        private void append(long quizId, ByteBuffer block) throws IOException {
+
+            if (count == capacity) {
+                throw new IllegalStateException("Snapshot capacity of " + capacity + " quizzes exceeded");
+            }
+            if (quizId <= lastId) {
+                throw new IllegalStateException("Quizzes must be added in ascending id order");
+            }
+
+            int length = block.remaining();
+            if (position + length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Quiz snapshot would exceed 2 GB");
+            }
+
+            index.putLong(quizId).putInt((int) position).putInt(length);
+
+            while (block.hasRemaining()) {
+                position += channel.write(block, position);
+            }
+
+            lastId = quizId;
+            count++;
+        }
+
+        public void commit(long changeVersion) throws IOException {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putInt(count).putLong(changeVersion).flip();
+            channel.write(header, 0);
+            channel.write(index.flip(), HEADER_SIZE);
+            channel.force(false);
+            channel.close();
+
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    private static byte[] encode(Quiz quiz, boolean dedupStrings) throws IOException {
+
+        StringTable strings = new StringTable(dedupStrings);
+        List<QuestionEntity> questions = quiz.questions();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BLOCK_HEADER + questions.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        int tenant = strings.add(quiz.tenantId());
+        int[] stringIndices = new int[questions.size() * 5];
+        byte[] correct = new byte[(questions.size() + 3) / 4];
+
+        for (int i = 0; i < questions.size(); i++) {
+            QuestionEntity q = questions.get(i);
+            stringIndices[i * 5] = strings.add(q.getQuestion());
+            stringIndices[i * 5 + 1] = strings.add(q.getOption1());
+            stringIndices[i * 5 + 2] = strings.add(q.getOption2());
+            stringIndices[i * 5 + 3] = strings.add(q.getOption3());
+            stringIndices[i * 5 + 4] = strings.add(q.getOption4());
+            correct[i / 4] |= (byte) ((q.getCorrectIndex() & 3) << (i % 4 * 2));
+        }
+
+        out.writeInt(tenant);
+        out.writeByte(quiz.order().ordinal());
+        out.writeByte(quiz.singleMessage() ? 1 : 0);
+        out.writeShort(0);
+        out.writeInt(questions.size());
+        out.writeInt(strings.size());
+
+        for (int i = 0; i < questions.size(); i++) {
+            out.writeLong(questions.get(i).getId());
+            for (int s = 0; s < 5; s++) {
+                out.writeInt(stringIndices[i * 5 + s]);
+            }
+        }
+        out.write(correct);
+        strings.writeTo(out);
+
+        return bytes.toByteArray();
+    }
+
+    // Repeated strings ("True"/"False" options) are stored once per quiz when dedup is on
+    private static final class StringTable {
+        private final boolean dedup;
+        private final Map<String, Integer> seen = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+
+        private StringTable(boolean dedup) {
+            this.dedup = dedup;
+        }
+
+        private int add(String value) {
+
+            if (value == null) return -1;
+
+            if (dedup) {
+                Integer existing = seen.get(value);
+                if (existing != null) return existing;
+            }
+
+            int index = values.size();
+            values.add(value.getBytes(StandardCharsets.UTF_8));
+            if (dedup) seen.put(value, index);
+            return index;
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+
+            // Offset table: a leading 0, then the end of each string
+            out.writeInt(0);
+            int end = 0;
+            for (byte[] value : values) {
+                end += value.length;
+                out.writeInt(end);
+            }
+            for (byte[] value : values) {
+                out.write(value);
+            }
+        }
+    }
+}
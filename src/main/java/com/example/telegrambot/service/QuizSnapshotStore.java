@@ -0,0 +1,307 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.config.ReadWriteRoutingDataSource;
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuestionOrder;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.repository.QuestionRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Optional off-heap tier for quiz content (quiz.snapshot.enabled).
+ * A valid existing snapshot is mapped at startup and kept, so a restart
+ * costs one change-log query instead of reloading every quiz; a missing or
+ * unreadable file, or one older than the change log, triggers a full build.
+ * Quizzes changed since the file was built, on any instance, are found in
+ * quiz_content_changes, marked dirty and skipped until the next rebuild,
+ * which copies every clean quiz block byte for byte from the current
+ * snapshot and reloads only the dirty ones.
+ */
+@Component
+public class QuizSnapshotStore {
+
+    // Quizzes whose questions are fetched per query during a full build
+    private static final int LOAD_BATCH = 500;
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+
+    private final boolean enabled;
+    private final Path path;
+    private final boolean dedupStrings;
+
+    private volatile QuizSnapshotFile current;
+
+    // quizId -> change counter, so a change made during a rebuild stays dirty
+    private final Map<Long, Integer> dirty = new ConcurrentHashMap<>();
+    private volatile boolean fullRebuildPending = true;
+
+    // Every change-log version up to this one is in the file or marked dirty
+    private volatile long changeVersion;
+    // Versions past changeVersion already marked dirty, not yet settled
+    private final Set<Long> seenChanges = new HashSet<>();
+
+    private final List<Runnable> rebuildListeners = new CopyOnWriteArrayList<>();
+
+    public QuizSnapshotStore(QuizRepository quizRepository,
+                             QuestionRepository questionRepository,
+                             @Value("${quiz.snapshot.enabled:false}") boolean enabled,
+                             @Value("${quiz.snapshot.path:data/quiz-content.snap}") String path,
+                             @Value("${quiz.snapshot.dedup-strings:true}") boolean dedupStrings) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.dedupStrings = dedupStrings;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+
+        if (!enabled || !Files.exists(path)) return;
+
+        try {
+            QuizSnapshotFile snapshot = QuizSnapshotFile.open(path);
+
+            // Changes older than the file may have been pruned from the log
+            long oldest = ReadWriteRoutingDataSource.onPrimary(quizRepository::oldestContentChange);
+            if (oldest > snapshot.changeVersion() + 1) {
+                System.err.println("⚠️ Quiz snapshot is older than the change log, rebuilding it");
+                return;
+            }
+
+            // Edits, deletes and new quizzes since it was built, from any instance
+            changeVersion = snapshot.changeVersion();
+            syncChanges();
+
+            current = snapshot;
+            fullRebuildPending = false;
+            System.out.println("📦 Mapped quiz snapshot: " + current.size() + " quizzes, "
+                    + dirty.size() + " changed since");
+        } catch (Exception e) {
+            System.err.println("⚠️ Ignoring quiz snapshot: " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called after every successful rebuild, e.g. to drop heap copies now served by the file
+    public void onRebuilt(Runnable listener) {
+        rebuildListeners.add(listener);
+    }
+
+    // ======================================================
+    // ================= READ / INVALIDATE ==================
+    // ======================================================
+
+    public QuizSnapshotFile.Quiz find(Long quizId) {
+
+        QuizSnapshotFile snapshot = current;
+
+        if (snapshot == null || dirty.containsKey(quizId)) {
+            return null;
+        }
+        return snapshot.find(quizId);
+    }
+
+    public boolean contains(Long quizId) {
+
+        QuizSnapshotFile snapshot = current;
+        return snapshot != null && !dirty.containsKey(quizId) && snapshot.contains(quizId);
+    }
+
+    public void markDirty(Long quizId) {
+        if (enabled) {
+            dirty.merge(quizId, 1, Integer::sum);
+        }
+    }
+
+    // ======================================================
+    // ================= REBUILD ============================
+    // ======================================================
+
+    @Scheduled(fixedDelayString = "${quiz.snapshot.rebuild-delay-ms:5000}")
+    public synchronized void rebuild() {
+
+        if (!enabled) return;
+
+        try {
+            syncChanges();
+        } catch (Exception e) {
+            // Nothing new gets marked until the database is back; the file stays as it was
+            System.err.println("⚠️ Quiz change log unavailable: " + e.getMessage());
+            return;
+        }
+
+        if (!fullRebuildPending && dirty.isEmpty()) return;
+
+        long started = System.currentTimeMillis();
+        boolean full = fullRebuildPending || current == null;
+        Map<Long, Integer> batch = new HashMap<>(dirty);
+
+        // Content is read after this point, so it includes every change up to it
+        long version = changeVersion;
+
+        try {
+            int quizzes = full ? writeFull(version) : writeIncremental(batch, version);
+            current = QuizSnapshotFile.open(path);
+
+            fullRebuildPending = false;
+            batch.forEach(dirty::remove);
+            rebuildListeners.forEach(Runnable::run);
+
+            System.out.println("📦 Quiz snapshot rebuilt (" + (full ? "full" : batch.size() + " changed")
+                    + "): " + quizzes + " quizzes, " + Files.size(path) + " bytes in "
+                    + (System.currentTimeMillis() - started) + " ms");
+
+        } catch (Exception e) {
+            // Dirty quizzes keep falling through to Postgres until a rebuild succeeds
+            System.err.println("❌ Quiz snapshot rebuild failed: " + e.getMessage());
+        }
+    }
+
+    // Marks every quiz logged since changeVersion dirty, once per change, and
+    // moves changeVersion over the changes that can no longer be overtaken
+    private void syncChanges() {
+
+        List<Object[]> changes = ReadWriteRoutingDataSource.onPrimary(
+                () -> quizRepository.findContentChangesSince(changeVersion));
+
+        long settledUpTo = changeVersion;
+        boolean settledSoFar = true;
+
+        for (Object[] change : changes) {
+
+            long version = ((Number) change[0]).longValue();
+            if (seenChanges.add(version)) {
+                dirty.merge(((Number) change[1]).longValue(), 1, Integer::sum);
+            }
+
+            settledSoFar = settledSoFar && Boolean.TRUE.equals(change[2]);
+            if (settledSoFar) settledUpTo = version;
+        }
+
+        long applied = settledUpTo;
+        seenChanges.removeIf(version -> version <= applied);
+        changeVersion = applied;
+    }
+
+    // Runs with the snapshot disabled too: the triggers log either way
+    @Scheduled(initialDelay = 3600000, fixedDelay = 3600000)
+    public void pruneChangeLog() {
+        try {
+            quizRepository.pruneContentChanges();
+        } catch (Exception e) {
+            System.err.println("⚠️ Quiz change log prune failed: " + e.getMessage());
+        }
+    }
+
+    // Dirty marks are cleared after these, so both read what was just written from the primary
+
+    private int writeFull(long version) throws IOException {
+
+        List<QuizEntity> active = new ArrayList<>(ReadWriteRoutingDataSource.onPrimary(
+                quizRepository::findByActiveTrue));
+        active.sort(Comparator.comparing(QuizEntity::getId));
+
+        int written = 0;
+
+        try (QuizSnapshotFile.Writer writer = QuizSnapshotFile.Writer.create(path, active.size(), dedupStrings)) {
+
+            for (int from = 0; from < active.size(); from += LOAD_BATCH) {
+
+                List<QuizEntity> chunk = active.subList(from, Math.min(active.size(), from + LOAD_BATCH));
+                Map<Long, QuizSnapshotFile.Quiz> loaded = load(chunk);
+
+                for (QuizEntity quiz : chunk) {
+                    QuizSnapshotFile.Quiz snapshot = loaded.get(quiz.getId());
+                    if (snapshot != null) {
+                        writer.add(snapshot);
+                        written++;
+                    }
+                }
+            }
+            writer.commit(version);
+        }
+        return written;
+    }
+
+    private int writeIncremental(Map<Long, Integer> batch, long version) throws IOException {
+
+        QuizSnapshotFile snapshot = current;
+
+        List<QuizEntity> changed = ReadWriteRoutingDataSource.onPrimary(
+                () -> quizRepository.findAllById(batch.keySet())).stream()
+                .filter(QuizEntity::isActive)
+                .toList();
+        Map<Long, QuizSnapshotFile.Quiz> reloaded = new TreeMap<>(load(changed));
+
+        // Merge the clean ids of the old file with the reloaded ones, both ascending
+        TreeMap<Long, Boolean> ids = new TreeMap<>();
+        for (Long id : snapshot.quizIds()) {
+            if (!batch.containsKey(id)) ids.put(id, Boolean.FALSE);
+        }
+        for (Long id : reloaded.keySet()) {
+            ids.put(id, Boolean.TRUE);
+        }
+
+        try (QuizSnapshotFile.Writer writer = QuizSnapshotFile.Writer.create(path, ids.size(), dedupStrings)) {
+            for (Map.Entry<Long, Boolean> id : ids.entrySet()) {
+                if (id.getValue()) {
+                    writer.add(reloaded.get(id.getKey()));
+                } else {
+                    writer.copy(snapshot, id.getKey());
+                }
+            }
+            writer.commit(version);
+        }
+        return ids.size();
+    }
+
+    // One question query for the whole list; quizzes without questions are left out
+    private Map<Long, QuizSnapshotFile.Quiz> load(List<QuizEntity> quizzes) {
+
+        Map<Long, QuizSnapshotFile.Quiz> into = new HashMap<>();
+        if (quizzes.isEmpty()) return into;
+
+        Map<Long, List<QuestionEntity>> questions = new HashMap<>();
+        List<Long> ids = quizzes.stream().map(QuizEntity::getId).toList();
+
+        for (QuestionEntity q : ReadWriteRoutingDataSource.onPrimary(
+                () -> questionRepository.findByQuizIdInOrderByQuizIdAscIdAsc(ids))) {
+            questions.computeIfAbsent(q.getQuizId(), k -> new ArrayList<>()).add(q);
+        }
+
+        for (QuizEntity quiz : quizzes) {
+
+            List<QuestionEntity> list = questions.get(quiz.getId());
+            if (list == null) continue;
+
+            QuestionOrder order = quiz.getQuestionOrder() == null ? QuestionOrder.SHUFFLED : quiz.getQuestionOrder();
+
+            into.put(quiz.getId(), new QuizSnapshotFile.Quiz(
+                    quiz.getId(), quiz.getTenantId(), order, quiz.isSingleMessage(), list));
+        }
+        return into;
+    }
+}
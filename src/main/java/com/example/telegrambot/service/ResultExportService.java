@@ -0,0 +1,147 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.exception.BadRequestException;
+import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * /export: the CSV is produced on one thread into a bounded pipe while the
+ * upload thread streams the other end to Telegram, so neither side ever
+ * holds more than PIPE_BUFFER bytes of the file.
+ */
+@Service
+public class ResultExportService {
+
+    private static final int PIPE_BUFFER = 64 * 1024;
+
+    private final QuizRepository quizRepository;
+    private final ResultExporter exporter;
+    private final TelegramSender sender;
+
+    // One export at a time, each needs an upload and a writer thread
+    private final ExecutorService uploads = Executors.newSingleThreadExecutor();
+    private final ExecutorService writers = Executors.newSingleThreadExecutor();
+
+    public ResultExportService(QuizRepository quizRepository,
+                               ResultExporter exporter,
+                               TelegramSender sender) {
+        this.quizRepository = quizRepository;
+        this.exporter = exporter;
+        this.sender = sender;
+    }
+
+    public void startExport(Long quizId, Long adminId) {
+
+        String tenantId = TenantContext.current();
+
+        boolean ownQuiz = quizRepository.findById(quizId)
+                .map(q -> tenantId.equals(q.getTenantId()))
+                .orElse(false);
+
+        if (!ownQuiz) {
+            throw new BadRequestException("Quiz not found.");
+        }
+
+        uploads.submit(() -> TenantContext.run(tenantId, () -> run(tenantId, quizId, adminId)));
+    }
+
+    private void run(String tenantId, Long quizId, Long adminId) {
+
+        long started = System.currentTimeMillis();
+        Future<Long> rows = null;
+
+        try (PipedInputStream pipe = new PipedInputStream(PIPE_BUFFER);
+             ExportPipe in = new ExportPipe(pipe)) {
+
+            PipedOutputStream out = new PipedOutputStream(pipe);
+            rows = writers.submit(() -> {
+                try {
+                    long exported = exporter.export(tenantId, quizId, out);
+                    out.close();
+                    return exported;
+                } catch (Throwable e) {
+                    // Fail the reader before closing, so the upload never sees a clean end of file
+                    in.fail(e);
+                    out.close();
+                    throw e;
+                }
+            });
+
+            sender.sendDocument(tenantId, SendDocument.builder()
+                    .chatId(adminId.toString())
+                    .document(new InputFile(in, "quiz-" + quizId + "-results.csv.gz"))
+                    .build());
+
+            report(tenantId, adminId, "📄 Exported " + rows.get() + " results of quiz #" + quizId
+                    + " in " + (System.currentTimeMillis() - started) + " ms");
+
+        } catch (Exception e) {
+            // Closing the pipe above also stops the writer and releases its connection
+            if (rows != null) rows.cancel(true);
+            System.err.println("❌ Export of quiz " + quizId + " failed: " + e.getMessage());
+            report(tenantId, adminId, "❌ Export of quiz #" + quizId + " failed.");
+        }
+    }
+
+    private void report(String tenantId, Long adminId, String text) {
+        sender.sendAsync(tenantId, SendMessage.builder()
+                .chatId(adminId.toString())
+                .text(text)
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploads.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    // Read side of the pipe: a writer failure surfaces as an IOException, which aborts the upload
+    static final class ExportPipe extends FilterInputStream {
+
+        private volatile Throwable failure;
+
+        ExportPipe(InputStream source) {
+            super(source);
+        }
+
+        void fail(Throwable cause) {
+            failure = cause;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            check();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            check();
+            return n;
+        }
+
+        private void check() throws IOException {
+            if (failure != null) {
+                throw new IOException("Export writer failed", failure);
+            }
+        }
+    }
+}
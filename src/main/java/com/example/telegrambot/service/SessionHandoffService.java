@@ -0,0 +1,127 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuestionOrder;
+import com.example.telegrambot.session.QuizSession;
+import com.example.telegrambot.session.TenantChat;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries in-progress quiz sessions across a restart. A stopping instance
+ * parks them in session_handoff; the next one claims them with
+ * DELETE ... RETURNING, so each row is restored exactly once. Claiming is
+ * repeated for a while because during a rolling deploy the old instance
+ * parks after the new one has started.
+ */
+@Service
+public class SessionHandoffService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String PARK_SQL =
+            "INSERT INTO session_handoff (tenant_id, chat_id, quiz_id, question_order, seed, single_message, " +
+            "size, cursor_position, current_position, score, served, answers, last_activity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (tenant_id, chat_id) DO UPDATE SET quiz_id = EXCLUDED.quiz_id, " +
+            "question_order = EXCLUDED.question_order, seed = EXCLUDED.seed, " +
+            "single_message = EXCLUDED.single_message, size = EXCLUDED.size, " +
+            "cursor_position = EXCLUDED.cursor_position, current_position = EXCLUDED.current_position, " +
+            "score = EXCLUDED.score, served = EXCLUDED.served, answers = EXCLUDED.answers, " +
+            "last_activity = EXCLUDED.last_activity";
+
+    private static final String CLAIM_SQL =
+            "DELETE FROM session_handoff RETURNING *";
+
+    // Anything parked longer ago than the session timeout would be discarded anyway
+    private static final long CLAIM_WINDOW_MS = QuizService.SESSION_TIMEOUT_MS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuizService quizService;
+
+    private final long startedAt = System.currentTimeMillis();
+
+    public SessionHandoffService(JdbcTemplate jdbcTemplate, QuizService quizService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.quizService = quizService;
+    }
+
+    // ======================================================
+    // ================= PARK ===============================
+    // ======================================================
+
+    public int park() {
+
+        List<Map.Entry<TenantChat, QuizSession>> sessions =
+                new ArrayList<>(quizService.exportSessions().entrySet());
+
+        for (int from = 0; from < sessions.size(); from += BATCH_SIZE) {
+            List<Map.Entry<TenantChat, QuizSession>> batch =
+                    sessions.subList(from, Math.min(from + BATCH_SIZE, sessions.size()));
+
+            jdbcTemplate.batchUpdate(PARK_SQL, batch, batch.size(), (ps, entry) -> {
+                TenantChat key = entry.getKey();
+                QuizSession s = entry.getValue();
+                ps.setString(1, key.tenantId());
+                ps.setLong(2, key.chatId());
+                ps.setLong(3, s.getQuizId());
+                ps.setString(4, s.getOrder().name());
+                ps.setLong(5, s.getSeed());
+                ps.setBoolean(6, s.isSingleMessage());
+                ps.setInt(7, s.getSize());
+                ps.setInt(8, s.getCursor());
+                ps.setInt(9, s.getCurrent());
+                ps.setInt(10, s.getScore());
+                ps.setBytes(11, s.getServed() == null ? null : s.getServed().toByteArray());
+                ps.setBytes(12, s.getAnswers());
+                ps.setLong(13, s.getLastActivity());
+            });
+        }
+        return sessions.size();
+    }
+
+    // ======================================================
+    // ================= CLAIM ==============================
+    // ======================================================
+
+    @Scheduled(initialDelay = 10000, fixedDelay = 10000)
+    public void claim() {
+
+        if (System.currentTimeMillis() - startedAt > CLAIM_WINDOW_MS) return;
+
+        try {
+            Map<TenantChat, QuizSession> parked = new HashMap<>();
+
+            jdbcTemplate.query(CLAIM_SQL, rs -> {
+                QuizSession s = new QuizSession();
+                s.setQuizId(rs.getLong("quiz_id"));
+                s.setOrder(QuestionOrder.valueOf(rs.getString("question_order")));
+                s.setSeed(rs.getLong("seed"));
+                s.setSingleMessage(rs.getBoolean("single_message"));
+                s.setSize(rs.getInt("size"));
+                s.setCursor(rs.getInt("cursor_position"));
+                s.setCurrent(rs.getInt("current_position"));
+                s.setScore(rs.getInt("score"));
+                byte[] served = rs.getBytes("served");
+                s.setServed(served == null ? null : BitSet.valueOf(served));
+                s.setAnswers(rs.getBytes("answers"));
+                s.setLastActivity(rs.getLong("last_activity"));
+
+                parked.put(new TenantChat(rs.getString("tenant_id"), rs.getLong("chat_id")), s);
+            });
+
+            if (!parked.isEmpty()) {
+                System.out.println("🔁 Restored " + quizService.importSessions(parked)
+                        + " of " + parked.size() + " handed-off sessions");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Session handoff claim failed: " + e.getMessage());
+        }
+    }
+}
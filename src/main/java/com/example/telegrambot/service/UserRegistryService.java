@@ -0,0 +1,90 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.session.TenantChat;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class UserRegistryService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO bot_users (tenant_id, chat_id, first_seen, last_seen) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (tenant_id, chat_id) DO UPDATE SET last_seen = EXCLUDED.last_seen";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Chats seen since the last flush (deduplicated)
+    private final Set<TenantChat> pending = ConcurrentHashMap.newKeySet();
+
+    public UserRegistryService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Called on every update: must stay cheap, no DB access here
+    public void record(Long chatId) {
+        if (chatId != null) {
+            pending.add(TenantChat.of(chatId));
+        }
+    }
+
+    // ======================================================
+    // ================= BATCHED UPSERT =====================
+    // ======================================================
+
+    @Scheduled(fixedDelay = 5000)
+    public void flush() {
+
+        if (pending.isEmpty()) return;
+
+        List<TenantChat> batch = new ArrayList<>(BATCH_SIZE);
+        Iterator<TenantChat> it = pending.iterator();
+
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+
+            if (batch.size() == BATCH_SIZE) {
+                upsert(batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            upsert(batch);
+        }
+    }
+
+    private void upsert(List<TenantChat> chatIds) {
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, chatIds, chatIds.size(), (ps, chat) -> {
+                ps.setString(1, chat.tenantId());
+                ps.setLong(2, chat.chatId());
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+            });
+        } catch (Exception e) {
+            // Keep the ids so the next flush retries them
+            pending.addAll(chatIds);
+            System.err.println("⚠️ User registry flush failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
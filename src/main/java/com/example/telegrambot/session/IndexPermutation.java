@@ -0,0 +1,61 @@
+package com.example.telegrambot.session;
+
+/**
+ * Seeded pseudo-random permutation of [0, size) computed one index at a time.
+ * A balanced Feistel network permutes the smallest even-bit domain covering
+ * size; cycle-walking folds it back into range. Nothing is materialized, so a
+ * session only needs its seed and a cursor to walk a shuffled order.
+ */
+public final class IndexPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private IndexPermutation() {
+    }
+
+    public static int apply(int index, int size, long seed) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " outside [0, " + size + ")");
+        }
+
+        if (size == 1) {
+            return 0;
+        }
+
+        int bits = 64 - Long.numberOfLeadingZeros(size - 1L);
+        if ((bits & 1) == 1) bits++;
+
+        int half = bits / 2;
+        long mask = (1L << half) - 1;
+
+        // Domain is < 4 * size, so the expected walk is a couple of steps
+        long x = index;
+        do {
+            x = encrypt(x, half, mask, seed);
+        } while (x >= size);
+
+        return (int) x;
+    }
+
+    private static long encrypt(long x, int half, long mask, long seed) {
+
+        long left = x >>> half;
+        long right = x & mask;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right, round, seed) & mask);
+            left = right;
+            right = next;
+        }
+
+        return (left << half) | right;
+    }
+
+    // SplitMix64 finalizer keyed by seed and round
+    private static long mix(long value, int round, long seed) {
+        long h = value * 0x9E3779B97F4A7C15L ^ seed ^ (round + 1) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 31)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.telegrambot.session;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+public class LiveRoom {
+
+    private final Long id;
+    private final String tenantId;
+    private final Long quizId;
+    private final Long hostChatId;
+
+    // Shared by every player in the room, loaded once
+    private final List<QuestionEntity> questions;
+
+    private final Set<Long> players = ConcurrentHashMap.newKeySet();
+    // Shown on the scoreboard instead of chat ids; kept after a player leaves
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> scores = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long createdAt = System.currentTimeMillis();
+
+    @Setter
+    private volatile LiveRound currentRound;
+
+    public LiveRoom(Long id, String tenantId, Long quizId, Long hostChatId, List<QuestionEntity> questions) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.quizId = quizId;
+        this.hostChatId = hostChatId;
+        this.questions = questions;
+    }
+
+    public boolean markStarted() {
+        return started.compareAndSet(false, true);
+    }
+
+    public boolean isStarted() {
+        return started.get();
+    }
+
+    public void addPlayer(Long chatId, String name) {
+        names.put(chatId, name);
+        players.add(chatId);
+    }
+
+    public void removePlayer(Long chatId) {
+        players.remove(chatId);
+    }
+
+    public String nameOf(Long chatId) {
+        return names.getOrDefault(chatId, "Player");
+    }
+
+    public void addPoint(Long chatId) {
+        scores.merge(chatId, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.telegrambot.session;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One synchronized round of a live room.
+ * Answers from thousands of players land here in the same second, so nothing
+ * takes a lock: option tallies are striped LongAdders and the per-player
+ * "already answered" check is a single putIfAbsent.
+ */
+@Getter
+public class LiveRound {
+
+    private final int index;
+    private final QuestionEntity question;
+
+    private final LongAdder[] optionCounts = {
+            new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()
+    };
+
+    private final Map<Long, Integer> answers = new ConcurrentHashMap<>();
+
+    private volatile boolean open = true;
+
+    public LiveRound(int index, QuestionEntity question) {
+        this.index = index;
+        this.question = question;
+    }
+
+    // Returns false when the round is closed or the player already answered
+    public boolean submit(Long chatId, int option) {
+
+        if (!open || option < 0 || option >= optionCounts.length) {
+            return false;
+        }
+
+        if (answers.putIfAbsent(chatId, option) != null) {
+            return false;
+        }
+
+        optionCounts[option].increment();
+        return true;
+    }
+
+    public void close() {
+        open = false;
+    }
+
+    public long count(int option) {
+        return optionCounts[option].sum();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.telegrambot.session;
+
+import com.example.telegrambot.entity.QuestionOrder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.BitSet;
+
+/**
+ * Per-user quiz state. Questions live in a per-quiz array shared by every
+ * session; a session only keeps the seed and how far it has walked.
+ */
+@Getter
+@Setter
+public class QuizSession {
+
+    private Long quizId;
+    private QuestionOrder order;
+    private long seed;
+    private boolean singleMessage;
+
+    // Number of questions when the session started
+    private int size;
+
+    // Questions served so far
+    private int cursor;
+
+    // Position (in the shared array) of the question awaiting an answer
+    private int current = -1;
+
+    private int score;
+    private long lastActivity;
+
+    // Permutation ranks already served; only used by ADAPTIVE
+    private BitSet served;
+
+    // Original option picked at each position, plus one (0 = not answered)
+    private byte[] answers;
+}
@@ -0,0 +1,10 @@
+package com.example.telegrambot.session;
+
+// The same Telegram user talks to every bot with the same chatId,
+// so per-user state is keyed by tenant too
+public record TenantChat(String tenantId, Long chatId) {
+
+    public static TenantChat of(Long chatId) {
+        return new TenantChat(TenantContext.current(), chatId);
+    }
+}
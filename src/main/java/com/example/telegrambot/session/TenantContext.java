@@ -0,0 +1,77 @@
+package com.example.telegrambot.session;
+
+import com.example.telegrambot.config.TenantRegistry;
+
+/**
+ * Tenant (bot) the current thread is working for. Set by the dispatcher
+ * around update handling and by background jobs around their work. The
+ * dispatcher also records which chat the update came from, and the bot
+ * the kind of update while a JFR recording is running.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Long> CHAT = new ThreadLocal<>();
+    private static final ThreadLocal<String> UPDATE_TYPE = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId == null ? TenantRegistry.DEFAULT_TENANT : tenantId;
+    }
+
+    // Chat whose update is being handled, null in background jobs
+    public static TenantChat currentChat() {
+        Long chatId = CHAT.get();
+        return chatId == null ? null : new TenantChat(current(), chatId);
+    }
+
+    // "callback ANS_", "message /start"; null in background jobs or when not recording
+    public static String currentUpdateType() {
+        return UPDATE_TYPE.get();
+    }
+
+    public static void withUpdateType(String updateType, Runnable task) {
+        String previous = UPDATE_TYPE.get();
+        UPDATE_TYPE.set(updateType);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                UPDATE_TYPE.remove();
+            } else {
+                UPDATE_TYPE.set(previous);
+            }
+        }
+    }
+
+    public static void run(String tenantId, Long chatId, Runnable task) {
+        Long previous = CHAT.get();
+        CHAT.set(chatId);
+        try {
+            run(tenantId, task);
+        } finally {
+            if (previous == null) {
+                CHAT.remove();
+            } else {
+                CHAT.set(previous);
+            }
+        }
+    }
+
+    public static void run(String tenantId, Runnable task) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+-- Schema previously generated by hibernate ddl-auto.
+-- Existing databases are baselined at version 0, so this still runs there:
+-- every statement is IF NOT EXISTS and only fills in what is missing.
+
+CREATE TABLE IF NOT EXISTS admins (
+    chat_id BIGINT PRIMARY KEY
+);
+
+CREATE TABLE IF NOT EXISTS quizzes (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title          VARCHAR(255),
+    created_by     BIGINT,
+    active         BOOLEAN NOT NULL,
+    question_order VARCHAR(255),
+    created_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS questions (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quiz_id       BIGINT,
+    question      VARCHAR(500),
+    option1       VARCHAR(255),
+    option2       VARCHAR(255),
+    option3       VARCHAR(255),
+    option4       VARCHAR(255),
+    correct_index INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS bot_users (
+    chat_id    BIGINT PRIMARY KEY,
+    first_seen TIMESTAMP(6),
+    last_seen  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS broadcasts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quiz_id      BIGINT,
+    requested_by BIGINT,
+    status       VARCHAR(255),
+    last_chat_id BIGINT,
+    sent_count   BIGINT NOT NULL,
+    failed_count BIGINT NOT NULL,
+    created_at   TIMESTAMP(6),
+    finished_at  TIMESTAMP(6)
+);
@@ -0,0 +1,17 @@
+-- Columns added by ddl-auto after the baseline may be missing on old databases
+ALTER TABLE quizzes ADD COLUMN IF NOT EXISTS question_order VARCHAR(255);
+
+-- Start quiz: WHERE quiz_id = ? ORDER BY id is served straight from the index
+CREATE INDEX IF NOT EXISTS idx_questions_quiz_id_id ON questions (quiz_id, id);
+
+-- Orphans from earlier non-transactional deletes would block the foreign key
+DELETE FROM questions q
+WHERE NOT EXISTS (SELECT 1 FROM quizzes z WHERE z.id = q.quiz_id);
+
+-- Deleting a quiz removes its questions in the same statement
+ALTER TABLE questions
+    ADD CONSTRAINT fk_questions_quiz
+    FOREIGN KEY (quiz_id) REFERENCES quizzes (id) ON DELETE CASCADE;
+
+-- Quiz list only pages through active quizzes
+CREATE INDEX IF NOT EXISTS idx_quizzes_active_id ON quizzes (id) WHERE active;
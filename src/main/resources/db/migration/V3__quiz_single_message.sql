@@ -0,0 +1 @@
+ALTER TABLE quizzes ADD COLUMN IF NOT EXISTS single_message BOOLEAN NOT NULL DEFAULT FALSE;
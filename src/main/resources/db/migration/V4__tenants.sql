@@ -0,0 +1,16 @@
+-- Multi-bot tenancy: everything that existed before belongs to 'default'
+
+ALTER TABLE quizzes ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
+ALTER TABLE broadcasts ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
+
+ALTER TABLE admins ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
+ALTER TABLE admins DROP CONSTRAINT IF EXISTS admins_pkey;
+ALTER TABLE admins ADD PRIMARY KEY (tenant_id, chat_id);
+
+ALTER TABLE bot_users ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
+ALTER TABLE bot_users DROP CONSTRAINT IF EXISTS bot_users_pkey;
+ALTER TABLE bot_users ADD PRIMARY KEY (tenant_id, chat_id);
+
+-- Quiz list pages per tenant over active quizzes
+DROP INDEX IF EXISTS idx_quizzes_active_id;
+CREATE INDEX IF NOT EXISTS idx_quizzes_tenant_active_id ON quizzes (tenant_id, id) WHERE active;
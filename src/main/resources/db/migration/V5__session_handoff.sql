@@ -0,0 +1,17 @@
+-- Quiz sessions parked by a stopping instance, claimed by the next one
+
+CREATE TABLE IF NOT EXISTS session_handoff (
+    tenant_id        VARCHAR(255) NOT NULL,
+    chat_id          BIGINT       NOT NULL,
+    quiz_id          BIGINT       NOT NULL,
+    question_order   VARCHAR(20)  NOT NULL,
+    seed             BIGINT       NOT NULL,
+    single_message   BOOLEAN      NOT NULL,
+    size             INT          NOT NULL,
+    cursor_position  INT          NOT NULL,
+    current_position INT          NOT NULL,
+    score            INT          NOT NULL,
+    served           BYTEA,
+    last_activity    BIGINT       NOT NULL,
+    PRIMARY KEY (tenant_id, chat_id)
+);
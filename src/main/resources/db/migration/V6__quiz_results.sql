@@ -0,0 +1,13 @@
+-- One row per finished quiz attempt, exported per quiz in id order
+
+CREATE TABLE IF NOT EXISTS quiz_results (
+    id          BIGSERIAL    PRIMARY KEY,
+    tenant_id   VARCHAR(255) NOT NULL,
+    quiz_id     BIGINT       NOT NULL,
+    chat_id     BIGINT       NOT NULL,
+    score       INT          NOT NULL,
+    total       INT          NOT NULL,
+    finished_at TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_quiz_results_tenant_quiz_id ON quiz_results (tenant_id, quiz_id, id);
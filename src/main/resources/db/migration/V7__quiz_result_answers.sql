@@ -0,0 +1,12 @@
+-- Per-question answers of each finished attempt, exported next to its result
+
+CREATE TABLE IF NOT EXISTS quiz_result_answers (
+    result_id   BIGINT   NOT NULL REFERENCES quiz_results (id) ON DELETE CASCADE,
+    question_id BIGINT   NOT NULL,
+    selected    SMALLINT NOT NULL,
+    correct     BOOLEAN  NOT NULL,
+    PRIMARY KEY (result_id, question_id)
+);
+
+-- Answers given so far travel with a parked session
+ALTER TABLE session_handoff ADD COLUMN IF NOT EXISTS answers BYTEA;
@@ -0,0 +1,5 @@
+-- Which instance is sending a broadcast, and until when its claim holds.
+-- Renewed at every checkpoint; an expired lease lets another instance resume.
+
+ALTER TABLE broadcasts ADD COLUMN IF NOT EXISTS owner VARCHAR(255);
+ALTER TABLE broadcasts ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP(6);
@@ -0,0 +1,39 @@
+-- Log of quiz content edits, filled by triggers so it also covers other
+-- instances and edits made outside the bot. The quiz snapshot stores the
+-- last version it has applied and treats every quiz logged after it as stale.
+
+CREATE TABLE IF NOT EXISTS quiz_content_changes (
+    version    BIGSERIAL    PRIMARY KEY,
+    quiz_id    BIGINT       NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_quiz_content_changes_changed_at ON quiz_content_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION log_quiz_content_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'quizzes' THEN
+        INSERT INTO quiz_content_changes (quiz_id)
+        VALUES (CASE WHEN TG_OP = 'DELETE' THEN OLD.id ELSE NEW.id END);
+    ELSE
+        IF TG_OP <> 'INSERT' AND OLD.quiz_id IS NOT NULL THEN
+            INSERT INTO quiz_content_changes (quiz_id) VALUES (OLD.quiz_id);
+        END IF;
+        IF TG_OP <> 'DELETE' AND NEW.quiz_id IS NOT NULL
+                AND (TG_OP = 'INSERT' OR NEW.quiz_id IS DISTINCT FROM OLD.quiz_id) THEN
+            INSERT INTO quiz_content_changes (quiz_id) VALUES (NEW.quiz_id);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS quizzes_content_change ON quizzes;
+CREATE TRIGGER quizzes_content_change
+    AFTER INSERT OR UPDATE OR DELETE ON quizzes
+    FOR EACH ROW EXECUTE FUNCTION log_quiz_content_change();
+
+DROP TRIGGER IF EXISTS questions_content_change ON questions;
+CREATE TRIGGER questions_content_change
+    AFTER INSERT OR UPDATE OR DELETE ON questions
+    FOR EACH ROW EXECUTE FUNCTION log_quiz_content_change();
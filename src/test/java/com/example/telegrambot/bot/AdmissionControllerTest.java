@@ -0,0 +1,144 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.DataSourcePools;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AdmissionControllerTest {
+
+    private UpdateDispatcher dispatcher;
+    private TelegramSender sender;
+    private SimpleMeterRegistry meters;
+    private HikariPoolMXBean pool;
+    private AdmissionController admission;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = mock(UpdateDispatcher.class);
+        sender = mock(TelegramSender.class);
+        meters = new SimpleMeterRegistry();
+
+        pool = mock(HikariPoolMXBean.class);
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+
+        // Burst of 3, refill slow enough that the test never sees a new token
+        admission = new AdmissionController(dispatcher, sender, meters,
+                new DataSourcePools(dataSource, Map.of()), 0.01, 3, 100, 10, 5);
+    }
+
+    @Test
+    void floodingChatIsCutOffAfterBurstAndToldOnce() {
+        Update update = message(7L);
+
+        assertTrue(admission.admit("default", 7L, update));
+        assertTrue(admission.admit("default", 7L, update));
+        assertTrue(admission.admit("default", 7L, update));
+        assertFalse(admission.admit("default", 7L, update));
+        assertFalse(admission.admit("default", 7L, update));
+
+        // Other chats keep their own bucket
+        assertTrue(admission.admit("default", 8L, message(8L)));
+
+        verify(sender, times(1)).sendAsync(eq("default"), any(SendMessage.class));
+        assertEquals(2.0, meters.get("bot.admission.rejected").tag("reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    void deepDispatchQueueShedsEveryone() {
+        when(dispatcher.getQueueDepth()).thenReturn(101);
+        admission.refreshLoad();
+
+        assertFalse(admission.admit("default", 7L, message(7L)));
+        assertEquals(1.0, meters.get("bot.admission.rejected").tag("reason", "overloaded").counter().count());
+
+        when(dispatcher.getQueueDepth()).thenReturn(0);
+        admission.refreshLoad();
+
+        assertTrue(admission.admit("default", 7L, message(7L)));
+    }
+
+    @Test
+    void floodOfCallbacksIsAckedOnlyOncePerCooldown() {
+        for (int i = 0; i < 50; i++) {
+            admission.admit("default", 7L, callback(7L, "cb" + i));
+        }
+
+        verify(sender, times(1)).sendAsync(eq("default"), any(AnswerCallbackQuery.class));
+        assertEquals(46.0, meters.get("bot.admission.busy_replies.dropped").counter().count());
+    }
+
+    @Test
+    void busyRepliesShareOneGlobalBudget() {
+        when(dispatcher.getQueueDepth()).thenReturn(101);
+        admission.refreshLoad();
+
+        for (long chat = 1; chat <= 20; chat++) {
+            assertFalse(admission.admit("default", chat, message(chat)));
+        }
+
+        // Only the initial token of the busy budget is available this instant
+        verify(sender, times(1)).sendAsync(eq("default"), any(SendMessage.class));
+    }
+
+    @Test
+    void dbWaitersShedUntilTheyFallBelowHalfTheLimit() {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(11);
+        admission.refreshLoad();
+        assertFalse(admission.admit("default", 7L, message(7L)));
+
+        // Under the limit but above half: still shedding
+        when(pool.getThreadsAwaitingConnection()).thenReturn(8);
+        admission.refreshLoad();
+        assertFalse(admission.admit("default", 7L, message(7L)));
+
+        when(pool.getThreadsAwaitingConnection()).thenReturn(2);
+        admission.refreshLoad();
+        assertTrue(admission.admit("default", 7L, message(7L)));
+    }
+
+    private static Update callback(Long chatId, String id) {
+        Chat chat = new Chat();
+        chat.setId(chatId);
+
+        Message message = new Message();
+        message.setChat(chat);
+
+        CallbackQuery callback = new CallbackQuery();
+        callback.setId(id);
+        callback.setMessage(message);
+
+        Update update = new Update();
+        update.setCallbackQuery(callback);
+        return update;
+    }
+
+    private static Update message(Long chatId) {
+        Chat chat = new Chat();
+        chat.setId(chatId);
+
+        Message message = new Message();
+        message.setChat(chat);
+        message.setText("/start");
+
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.telegrambot.bot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairTaskQueueTest {
+
+    @Test
+    void busyTenantDoesNotStarveOthers() throws Exception {
+
+        FairTaskQueue queue = new FairTaskQueue();
+        List<String> ran = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            queue.submit("busy", () -> ran.add("busy"));
+        }
+        queue.submit("quiet", () -> ran.add("quiet"));
+
+        queue.take().run();
+        queue.take().run();
+
+        assertTrue(ran.contains("quiet"), "quiet tenant should run within one round");
+    }
+
+    @Test
+    void keepsOrderWithinTenant() throws Exception {
+
+        FairTaskQueue queue = new FairTaskQueue();
+        List<Integer> ran = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            queue.submit("a", () -> ran.add(n));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            queue.take().run();
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4), ran);
+    }
+
+    @Test
+    void drainsThenReturnsNullWhenClosed() throws Exception {
+
+        FairTaskQueue queue = new FairTaskQueue();
+        queue.submit("a", () -> { });
+        queue.close();
+
+        assertNotNull(queue.take());
+        assertNull(queue.take());
+        assertThrows(IllegalStateException.class, () -> queue.submit("a", () -> { }));
+    }
+
+    @Test
+    void discardReturnsEverythingStillWaiting() throws Exception {
+
+        FairTaskQueue queue = new FairTaskQueue();
+        queue.submit("a", () -> { });
+        queue.submit("b", () -> { });
+        queue.submit("b", () -> { });
+        queue.close();
+
+        assertEquals(3, queue.discard().size());
+        assertEquals(0, queue.size());
+        assertNull(queue.take());
+    }
+}
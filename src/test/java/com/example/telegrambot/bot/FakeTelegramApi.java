@@ -0,0 +1,92 @@
+package com.example.telegrambot.bot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local stand-in for the Bot API: records every call and answers "ok".
+ */
+class FakeTelegramApi implements AutoCloseable {
+
+    private static final String MESSAGE_RESULT =
+            "{\"ok\":true,\"result\":{\"message_id\":1,\"date\":0,\"chat\":{\"id\":1,\"type\":\"private\"}}}";
+
+    private static final String TOO_MANY_REQUESTS =
+            "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests: retry after 1\"," +
+            "\"parameters\":{\"retry_after\":1}}";
+
+    private final HttpServer server;
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final Map<String, String> lastBodies = new ConcurrentHashMap<>();
+    private final AtomicInteger throttleNext = new AtomicInteger();
+
+    FakeTelegramApi() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/bot";
+    }
+
+    // Answer the next n calls with 429
+    void throttleNext(int n) {
+        throttleNext.set(n);
+    }
+
+    List<String> calls() {
+        return calls;
+    }
+
+    long count(String method) {
+        return calls.stream().filter(method::equalsIgnoreCase).count();
+    }
+
+    // Raw request body of the latest call to a method
+    String lastBody(String method) {
+        return lastBodies.get(method.toLowerCase());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        String path = exchange.getRequestURI().getPath();
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        String body;
+        if (throttleNext.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+            body = TOO_MANY_REQUESTS;
+        } else {
+            String method = path.substring(path.lastIndexOf('/') + 1);
+            calls.add(method);
+            lastBodies.put(method.toLowerCase(), request);
+            body = path.toLowerCase().endsWith("/answercallbackquery")
+                    ? "{\"ok\":true,\"result\":true}"
+                    : MESSAGE_RESULT;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
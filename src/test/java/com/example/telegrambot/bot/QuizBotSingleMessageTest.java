@@ -0,0 +1,130 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.StartupTimer;
+import com.example.telegrambot.config.TenantProperties.Tenant;
+import com.example.telegrambot.jfr.JfrRecorder;
+import com.example.telegrambot.model.QuizQuestion;
+import com.example.telegrambot.service.AdminService;
+import com.example.telegrambot.service.BroadcastService;
+import com.example.telegrambot.service.LiveQuizService;
+import com.example.telegrambot.service.QuizService;
+import com.example.telegrambot.service.ResultExportService;
+import com.example.telegrambot.service.UserRegistryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class QuizBotSingleMessageTest {
+
+    private static final Long CHAT_ID = 42L;
+
+    private FakeTelegramApi api;
+    private QuizService quizService;
+    private QuizBot bot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new FakeTelegramApi();
+
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(api.baseUrl());
+
+        Tenant tenant = new Tenant();
+        tenant.setId("default");
+        tenant.setToken("test-token");
+        tenant.setUsername("test_bot");
+
+        quizService = mock(QuizService.class);
+        bot = new QuizBot(options, tenant, quizService,
+                mock(AdminService.class),
+                mock(UserRegistryService.class),
+                mock(BroadcastService.class),
+                mock(ResultExportService.class),
+                mock(LiveQuizService.class),
+                mock(JfrRecorder.class),
+                mock(UpdateDispatcher.class),
+                mock(StartupTimer.class),
+                mock(AdmissionController.class));
+
+        when(quizService.checkAnswer(CHAT_ID, 0)).thenReturn(true);
+        when(quizService.getNextQuestion(CHAT_ID))
+                .thenReturn(new QuizQuestion("2 + 2?", List.of("3", "4", "5", "6"), 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void singleMessageModeEditsInPlace() {
+
+        when(quizService.isSingleMessage(CHAT_ID)).thenReturn(true);
+
+        bot.onUpdateReceived(answer(0));
+
+        assertEquals(0, api.count("sendmessage"));
+        assertEquals(1, api.count("editmessagetext"));
+        assertEquals(1, api.count("answercallbackquery"));
+
+        // Feedback stays in the message, the callback ack carries no toast
+        assertTrue(api.lastBody("editmessagetext").contains("Correct!"));
+        assertFalse(api.lastBody("answercallbackquery").contains("Correct!"));
+    }
+
+    @Test
+    void singleMessageModeEditsFinalScore() {
+
+        when(quizService.isSingleMessage(CHAT_ID)).thenReturn(true);
+        when(quizService.getNextQuestion(CHAT_ID)).thenReturn(null);
+        when(quizService.finish(CHAT_ID)).thenReturn(3);
+
+        bot.onUpdateReceived(answer(0));
+
+        assertEquals(0, api.count("sendmessage"));
+        assertEquals(1, api.count("editmessagetext"));
+        assertTrue(api.lastBody("editmessagetext").contains("Correct!"));
+        verify(quizService).finish(CHAT_ID);
+    }
+
+    @Test
+    void classicModeSendsNewMessagePerQuestion() {
+
+        bot.onUpdateReceived(answer(0));
+
+        assertEquals(1, api.count("sendmessage"));
+        assertEquals(1, api.count("editmessagetext"));
+    }
+
+    private Update answer(int option) {
+
+        Chat chat = new Chat();
+        chat.setId(CHAT_ID);
+        chat.setType("private");
+
+        Message message = new Message();
+        message.setMessageId(7);
+        message.setChat(chat);
+
+        CallbackQuery callback = new CallbackQuery();
+        callback.setId("cb-1");
+        callback.setData("ANS_" + option);
+        callback.setMessage(message);
+
+        Update update = new Update();
+        update.setCallbackQuery(callback);
+        return update;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.telegrambot.bot;
+
+import com.example.telegrambot.config.TenantProperties;
+import com.example.telegrambot.config.TenantRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelegramSenderTest {
+
+    private FakeTelegramApi api;
+    private TelegramSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new FakeTelegramApi();
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(api.baseUrl());
+        TenantRegistry tenants = new TenantRegistry(new TenantProperties(), "test-token", "test_bot", "1");
+        sender = new TelegramSender(options, tenants, 4, RateLimiterRegistry.ofDefaults());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdown();
+        api.close();
+    }
+
+    @Test
+    void deliversEveryMessage() {
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (long chatId = 1; chatId <= 50; chatId++) {
+            futures.add(sender.sendAsync(message(chatId)));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(50, api.count("sendmessage"));
+        assertEquals(50, sender.getSentCount());
+        assertEquals(0, sender.getFailedCount());
+    }
+
+    @Test
+    void retriesAfterTooManyRequests() {
+
+        api.throttleNext(1);
+        long started = System.currentTimeMillis();
+
+        sender.sendAsync(message(1L)).join();
+
+        assertEquals(1, api.count("sendmessage"));
+        assertEquals(1, sender.getThrottledCount());
+        assertTrue(System.currentTimeMillis() - started >= 900, "should honour retry_after");
+    }
+
+    private SendMessage message(Long chatId) {
+        return SendMessage.builder()
+                .chatId(chatId.toString())
+                .text("hello")
+                .build();
+    }
+}
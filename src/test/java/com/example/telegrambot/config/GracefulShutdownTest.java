@@ -0,0 +1,53 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.bot.UpdateDispatcher;
+import com.example.telegrambot.service.BroadcastService;
+import com.example.telegrambot.service.SessionHandoffService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class GracefulShutdownTest {
+
+    @Test
+    void stopsPollingThenDrainsLanesThenParksThenPausesBroadcastsAroundSendDrain() {
+
+        BotInitializer bots = mock(BotInitializer.class);
+        UpdateDispatcher dispatcher = mock(UpdateDispatcher.class);
+        TelegramSender sender = mock(TelegramSender.class);
+        SessionHandoffService handoff = mock(SessionHandoffService.class);
+        BroadcastService broadcasts = mock(BroadcastService.class);
+
+        GracefulShutdown shutdown = new GracefulShutdown(bots, dispatcher, sender, handoff, broadcasts, 1000);
+        shutdown.start();
+        shutdown.stop();
+
+        InOrder order = inOrder(bots, dispatcher, handoff, broadcasts, sender);
+        order.verify(bots).stopPolling();
+        order.verify(dispatcher).drain(anyLong());
+        order.verify(handoff).park();
+        order.verify(broadcasts).pause();
+        order.verify(sender).drain(anyLong());
+        order.verify(broadcasts).awaitPaused(anyLong());
+
+        assertFalse(shutdown.isRunning());
+    }
+
+    @Test
+    void failedParkStillDrainsSends() {
+
+        BotInitializer bots = mock(BotInitializer.class);
+        UpdateDispatcher dispatcher = mock(UpdateDispatcher.class);
+        TelegramSender sender = mock(TelegramSender.class);
+        SessionHandoffService handoff = mock(SessionHandoffService.class);
+        when(handoff.park()).thenThrow(new IllegalStateException("db down"));
+
+        new GracefulShutdown(bots, dispatcher, sender, handoff, mock(BroadcastService.class), 1000).stop();
+
+        verify(sender).drain(anyLong());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.telegrambot.config;
+
+import com.example.telegrambot.session.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+// Stand-in pools: only which one hands out the connection matters here
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = pool();
+        replica1 = pool();
+        replica2 = pool();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+
+        routing = new ReadWriteRoutingDataSource(primary, replicas, 10_000);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasInTurn() throws Exception {
+
+        inTransaction(true, 7L);
+        inTransaction(true, 8L);
+        inTransaction(true, 9L);
+        inTransaction(false, null);
+
+        verify(replica1, times(2)).getConnection();
+        verify(replica2, times(1)).getConnection();
+        verify(primary, times(1)).getConnection();
+    }
+
+    @Test
+    void chatReadsItsOwnWritesFromPrimary() throws Exception {
+
+        inTransaction(false, 7L);   // admin creates a quiz
+        inTransaction(true, 7L);    // and lists quizzes right after
+        inTransaction(true, 8L);    // someone else
+
+        verify(primary, times(2)).getConnection();
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @Test
+    void laggingReplicaLeavesRotationAlone() throws Exception {
+
+        routing.setReplicaUsable("replica-1", false);
+        inTransaction(true, 7L);
+        inTransaction(true, 8L);
+
+        verify(replica2, times(2)).getConnection();
+        verifyNoInteractions(replica1, primary);
+
+        routing.setReplicaUsable("replica-2", false);
+        inTransaction(true, 9L);
+
+        verify(primary).getConnection();
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnly() throws Exception {
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadWriteRoutingDataSource.onPrimary(this::connect);
+
+        verify(primary).getConnection();
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    // ======================================================
+    // ========== THROUGH A REAL TRANSACTION MANAGER ========
+    // ======================================================
+
+    @Test
+    void lazyProxyRoutesReadOnlyTransactionToReplica() throws Exception {
+
+        DataSource lazy = lazy();
+
+        TenantContext.run("default", 7L, () -> runStatement(lazy, true));
+
+        verify(replica1).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void lazyProxyKeepsReadAfterWriteOnPrimary() throws Exception {
+
+        DataSource lazy = lazy();
+
+        TenantContext.run("default", 7L, () -> {
+            runStatement(lazy, false);
+            runStatement(lazy, true);
+        });
+
+        verify(primary, times(2)).getConnection();
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    void withoutLazyProxyTheConnectionIsPickedBeforeReadOnlyIsKnown() throws Exception {
+
+        TenantContext.run("default", 7L, () -> runStatement(routing, true));
+
+        verify(primary).getConnection();
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    // Defaults given up front, otherwise the proxy probes a connection for them
+    private DataSource lazy() {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy();
+        lazy.setTargetDataSource(routing);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        lazy.afterPropertiesSet();
+        return lazy;
+    }
+
+    private static void runStatement(DataSource dataSource, boolean readOnly) {
+
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+
+        tx.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void inTransaction(boolean readOnly, Long chatId) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        TenantContext.run("default", chatId, this::connect);
+    }
+
+    private Connection connect() {
+        try {
+            return routing.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DataSource pool() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.telegrambot.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Start-quiz and delete-quiz latency against a migrated Postgres with millions
+ * of question rows. Opt-in, it seeds and drops its own data:
+ *
+ *   mvn test -Dtest=QuestionIndexBenchmark \
+ *       -Dbench.db.url=jdbc:postgresql://localhost:5432/quizbot_bench \
+ *       -Dbench.db.user=postgres -Dbench.db.password=postgres
+ *
+ * Run once on a database migrated to V1 only and once on V2 to compare.
+ */
+@EnabledIfSystemProperty(named = "bench.db.url", matches = ".+")
+class QuestionIndexBenchmark {
+
+    private static final int QUIZZES = Integer.getInteger("bench.quizzes", 100_000);
+    private static final int QUESTIONS_PER_QUIZ = Integer.getInteger("bench.questions", 20);
+    private static final int SAMPLES = Integer.getInteger("bench.samples", 200);
+
+    @Test
+    void startAndDeleteLatency() throws Exception {
+
+        try (Connection c = DriverManager.getConnection(
+                System.getProperty("bench.db.url"),
+                System.getProperty("bench.db.user", "postgres"),
+                System.getProperty("bench.db.password", "postgres"))) {
+
+            long firstQuiz = seed(c);
+
+            long[] start = new long[SAMPLES];
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT * FROM questions WHERE quiz_id = ? ORDER BY id ASC")) {
+
+                for (int i = 0; i < SAMPLES; i++) {
+                    ps.setLong(1, firstQuiz + ThreadLocalRandom.current().nextInt(QUIZZES));
+                    long t = System.nanoTime();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getString("question");
+                        }
+                    }
+                    start[i] = System.nanoTime() - t;
+                }
+            }
+
+            long[] delete = new long[SAMPLES];
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM quizzes WHERE id = ?")) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    ps.setLong(1, firstQuiz + i);
+                    long t = System.nanoTime();
+                    ps.executeUpdate();
+                    delete[i] = System.nanoTime() - t;
+                }
+            }
+
+            report("start quiz ", start);
+            report("delete quiz", delete);
+
+            cleanup(c, firstQuiz);
+        }
+    }
+
+    private long seed(Connection c) throws Exception {
+
+        try (Statement st = c.createStatement()) {
+
+            ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM quizzes");
+            rs.next();
+            long first = rs.getLong(1);
+
+            long t = System.currentTimeMillis();
+
+            st.execute("INSERT INTO quizzes (id, title, created_by, active, created_at) " +
+                    "SELECT g, 'bench ' || g, 0, true, now() " +
+                    "FROM generate_series(" + first + ", " + (first + QUIZZES - 1) + ") g");
+
+            st.execute("INSERT INTO questions (quiz_id, question, option1, option2, option3, option4, correct_index) " +
+                    "SELECT q, 'question ' || n, 'a', 'b', 'c', 'd', n % 4 " +
+                    "FROM generate_series(" + first + ", " + (first + QUIZZES - 1) + ") q, " +
+                    "generate_series(1, " + QUESTIONS_PER_QUIZ + ") n");
+
+            st.execute("ANALYZE quizzes");
+            st.execute("ANALYZE questions");
+
+            System.out.printf("seeded %d quizzes / %d questions in %d ms%n",
+                    QUIZZES, (long) QUIZZES * QUESTIONS_PER_QUIZ, System.currentTimeMillis() - t);
+            return first;
+        }
+    }
+
+    private void cleanup(Connection c, long firstQuiz) throws Exception {
+        try (Statement st = c.createStatement()) {
+            st.execute("DELETE FROM questions WHERE quiz_id >= " + firstQuiz);
+            st.execute("DELETE FROM quizzes WHERE id >= " + firstQuiz);
+        }
+    }
+
+    private void report(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%s p50=%.3f ms  p99=%.3f ms  max=%.3f ms%n", label,
+                nanos[nanos.length / 2] / 1e6,
+                nanos[(int) (nanos.length * 0.99)] / 1e6,
+                nanos[nanos.length - 1] / 1e6);
+    }
+}
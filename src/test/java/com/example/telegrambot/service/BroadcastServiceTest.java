@@ -0,0 +1,69 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.entity.BroadcastEntity;
+import com.example.telegrambot.entity.BroadcastStatus;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.repository.BotUserRepository;
+import com.example.telegrambot.repository.BroadcastRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BroadcastServiceTest {
+
+    @Test
+    void sendsDroppedByShutdownAreNotFailuresAndStayAheadOfTheCheckpoint() {
+
+        BroadcastRepository broadcasts = mock(BroadcastRepository.class);
+        BotUserRepository users = mock(BotUserRepository.class);
+        QuizRepository quizzes = mock(QuizRepository.class);
+        TelegramSender sender = mock(TelegramSender.class);
+
+        QuizEntity quiz = new QuizEntity();
+        quiz.setId(5L);
+        quiz.setTitle("Capitals");
+        when(quizzes.findById(5L)).thenReturn(Optional.of(quiz));
+        when(users.findChatIdsAfter(eq("default"), eq(Long.MIN_VALUE), any())).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(broadcasts.checkpoint(anyLong(), anyString(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        BroadcastService service = new BroadcastService(broadcasts, users, quizzes, sender, 120);
+
+        // 1 delivered, 2 rejected by Telegram, 3 dropped by the drain, 4 never queued once paused
+        when(sender.sendAsync(any(SendMessage.class))).thenAnswer(inv -> {
+            String chatId = ((SendMessage) inv.getArgument(0)).getChatId();
+            return switch (chatId) {
+                case "2" -> CompletableFuture.failedFuture(new IllegalStateException("blocked"));
+                case "3" -> {
+                    service.pause();
+                    yield CompletableFuture.failedFuture(new CancellationException("Sender shut down"));
+                }
+                default -> CompletableFuture.completedFuture(new Message());
+            };
+        });
+
+        BroadcastEntity broadcast = new BroadcastEntity();
+        broadcast.setId(9L);
+        broadcast.setTenantId("default");
+        broadcast.setQuizId(5L);
+        broadcast.setRequestedBy(100L);
+
+        service.run(broadcast);
+
+        verify(broadcasts).checkpoint(eq(9L), anyString(), eq(2L), eq(1L), eq(1L), eq(120L));
+        verify(broadcasts).release(eq(9L), anyString());
+        verify(broadcasts, never()).save(any());
+        verify(sender, never()).sendAsync(argThat((SendMessage m) -> m.getChatId().equals("4")));
+        assertEquals(BroadcastStatus.RUNNING, broadcast.getStatus());
+    }
+}
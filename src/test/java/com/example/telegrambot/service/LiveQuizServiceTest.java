@@ -0,0 +1,156 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.exception.QuizStateException;
+import com.example.telegrambot.repository.QuestionRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.LiveRoom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LiveQuizServiceTest {
+
+    private static final Long QUIZ_ID = 5L;
+    private static final Long HOST = 1L;
+
+    private TelegramSender sender;
+    private LiveQuizService live;
+
+    @BeforeEach
+    void setUp() {
+        QuizRepository quizRepository = mock(QuizRepository.class);
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        sender = mock(TelegramSender.class);
+
+        QuizEntity quiz = new QuizEntity();
+        quiz.setId(QUIZ_ID);
+        quiz.setTenantId("default");
+        when(quizRepository.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+        when(questionRepository.findByQuizIdOrderByIdAsc(QUIZ_ID))
+                .thenReturn(List.of(question("2 + 2?", 1), question("3 + 3?", 2)));
+        when(sender.sendAsync(eq("default"), any(SendMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        live = new LiveQuizService(quizRepository, questionRepository, sender);
+        ReflectionTestUtils.setField(live, "roundSeconds", 60);
+        ReflectionTestUtils.setField(live, "pauseSeconds", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        live.shutdown();
+    }
+
+    @Test
+    void scoresOnlyAnswersToTheOpenRoundOfTheirRoom() {
+
+        LiveRoom room = live.createRoom(QUIZ_ID, HOST);
+        live.join(room.getId(), 10L, "Ann");
+        live.join(room.getId(), 11L, "Bob");
+        live.start(room.getId(), HOST);
+
+        assertTrue(live.submitAnswer(10L, room.getId(), 0, 1));
+        assertFalse(live.submitAnswer(10L, room.getId(), 0, 2), "already answered");
+        assertFalse(live.submitAnswer(11L, room.getId(), 1, 1), "button of another round");
+        assertTrue(live.submitAnswer(11L, room.getId(), 0, 3));
+        assertThrows(QuizStateException.class, () -> live.submitAnswer(10L, room.getId() + 1, 0, 1));
+
+        assertEquals(1, room.getCurrentRound().count(1));
+        assertEquals(1, room.getCurrentRound().count(3));
+        assertEquals(Integer.valueOf(1), room.getScores().get(10L));
+        assertNull(room.getScores().get(11L));
+    }
+
+    @Test
+    void runsEveryRoundThenFinishes() throws Exception {
+
+        ReflectionTestUtils.setField(live, "roundSeconds", 0);
+
+        LiveRoom room = live.createRoom(QUIZ_ID, HOST);
+        live.join(room.getId(), 10L, "Ann");
+        live.start(room.getId(), HOST);
+
+        // 2 questions + 2 results + final scoreboard
+        verify(sender, timeout(5000).times(5)).sendAsync(eq("default"), any(SendMessage.class));
+
+        ArgumentCaptor<SendMessage> sent = ArgumentCaptor.forClass(SendMessage.class);
+        verify(sender, times(5)).sendAsync(eq("default"), sent.capture());
+        List<String> texts = sent.getAllValues().stream().map(SendMessage::getText).toList();
+
+        assertTrue(texts.get(0).contains("Question 1/2"));
+        assertTrue(texts.get(1).startsWith("⏱️ Time's up!"));
+        assertTrue(texts.get(2).contains("Question 2/2"));
+        assertTrue(texts.get(4).startsWith("🏁 Live quiz finished!"));
+
+        assertThrows(QuizStateException.class, () -> live.submitAnswer(10L, room.getId(), 1, 0));
+    }
+
+    @Test
+    void joiningAnotherRoomLeavesThePreviousOne() {
+
+        LiveRoom first = live.createRoom(QUIZ_ID, HOST);
+        LiveRoom second = live.createRoom(QUIZ_ID, HOST);
+        live.join(first.getId(), 10L, "Ann");
+        live.join(second.getId(), 10L, "Ann");
+
+        assertFalse(first.getPlayers().contains(10L));
+        assertTrue(second.getPlayers().contains(10L));
+    }
+
+    @Test
+    void scoreboardShowsNamesNotChatIds() throws Exception {
+
+        ReflectionTestUtils.setField(live, "roundSeconds", 0);
+
+        LiveRoom room = live.createRoom(QUIZ_ID, HOST);
+        live.join(room.getId(), 10L, "Ann");
+        room.addPoint(10L);
+        live.start(room.getId(), HOST);
+
+        ArgumentCaptor<SendMessage> sent = ArgumentCaptor.forClass(SendMessage.class);
+        verify(sender, timeout(5000).times(5)).sendAsync(eq("default"), sent.capture());
+        String finalBoard = sent.getAllValues().get(4).getText();
+
+        assertTrue(finalBoard.contains("1. Ann — 1"), finalBoard);
+        assertFalse(finalBoard.contains("10"), finalBoard);
+    }
+
+    @Test
+    void expiresRoomsThatNeverStarted() {
+
+        LiveRoom idle = live.createRoom(QUIZ_ID, HOST);
+        live.join(idle.getId(), 10L, "Ann");
+
+        live.expireIdleRooms(idle.getCreatedAt() + LiveQuizService.IDLE_ROOM_TIMEOUT_MS + 1);
+
+        assertThrows(Exception.class, () -> live.join(idle.getId(), 11L, "Bob"));
+        assertThrows(QuizStateException.class, () -> live.submitAnswer(10L, idle.getId(), 0, 0));
+        verify(sender).sendAsync(eq("default"), any(SendMessage.class));
+    }
+
+    private static QuestionEntity question(String text, int correct) {
+        QuestionEntity q = new QuestionEntity();
+        q.setQuestion(text);
+        q.setOption1("1");
+        q.setOption2("4");
+        q.setOption3("6");
+        q.setOption4("8");
+        q.setCorrectIndex(correct);
+        return q;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.model.QuizSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSearchIndexTest {
+
+    private QuizSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new QuizSearchIndex();
+        index.add(quiz(1L, "default", "Java Basics"));
+        index.add(quiz(2L, "default", "Advanced Java Streams"));
+        index.add(quiz(3L, "default", "World Geography"));
+        index.add(quiz(4L, "other", "Java Trivia"));
+    }
+
+    @Test
+    void matchesSubstringsAndPrefixes() {
+        assertEquals(List.of(2L, 1L), ids(index.search("default", "java", 10)));
+        assertEquals(List.of(3L), ids(index.search("default", "geo", 10)));
+        assertEquals(List.of(3L), ids(index.search("default", "wo", 10)));
+        assertEquals(List.of(2L), ids(index.search("default", "java stream", 10)));
+        assertTrue(index.search("default", "python", 10).isEmpty());
+    }
+
+    @Test
+    void ranksPopularQuizzesFirst() {
+        index.recordTake(1L);
+        index.recordTake(1L);
+        index.recordTake(2L);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("default", "java", 10)));
+    }
+
+    @Test
+    void rebuildSeedsTakesAndDropsQuizzesGoneFromTheDatabase() {
+        index.recordTake(2L);
+
+        index.rebuild(List.of(quiz(1L, "default", "Java Basics"), quiz(2L, "default", "Advanced Java Streams")),
+                Map.of(1L, 5L, 2L, 3L));
+        index.recordTake(2L);
+
+        List<QuizSearchHit> hits = index.search("default", "java", 10);
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertEquals(5L, hits.get(0).takes());
+        assertEquals(4L, hits.get(1).takes());
+        assertTrue(index.search("other", "java", 10).isEmpty());
+    }
+
+    @Test
+    void isPartitionedByTenant() {
+        assertEquals(List.of(4L), ids(index.search("other", "java", 10)));
+    }
+
+    @Test
+    void removeDropsQuizFromResults() {
+        index.remove(2L);
+        assertEquals(List.of(1L), ids(index.search("default", "java", 10)));
+    }
+
+    private List<Long> ids(List<QuizSearchHit> hits) {
+        return hits.stream().map(QuizSearchHit::quizId).toList();
+    }
+
+    private QuizEntity quiz(Long id, String tenantId, String title) {
+        QuizEntity quiz = new QuizEntity();
+        quiz.setId(id);
+        quiz.setTenantId(tenantId);
+        quiz.setTitle(title);
+        return quiz;
+    }
+}
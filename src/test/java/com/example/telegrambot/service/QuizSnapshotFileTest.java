@@ -0,0 +1,140 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuestionOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsQuizzesThroughTheMappedFile() throws Exception {
+
+        Path path = dir.resolve("quiz.snap");
+
+        QuizSnapshotFile.write(path, List.of(
+                new QuizSnapshotFile.Quiz(7, "default", QuestionOrder.SEQUENTIAL, true,
+                        List.of(question(70, "Is Java typed?", "True", "False", null, null, 0),
+                                question(71, "Größe?", "Ja", "Nein", "Vielleicht", "Nie", 3))),
+                new QuizSnapshotFile.Quiz(3, "other", QuestionOrder.ADAPTIVE, false,
+                        List.of(question(30, "2 + 2?", "3", "4", "5", "True", 1)))), true);
+
+        QuizSnapshotFile snapshot = QuizSnapshotFile.open(path);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(List.of(3L, 7L), snapshot.quizIds());
+        assertNull(snapshot.find(5L));
+
+        QuizSnapshotFile.Quiz quiz = snapshot.find(7L);
+        assertEquals("default", quiz.tenantId());
+        assertEquals(QuestionOrder.SEQUENTIAL, quiz.order());
+        assertTrue(quiz.singleMessage());
+        assertEquals(2, quiz.questions().size());
+
+        QuestionEntity first = quiz.questions().get(0);
+        assertEquals(70L, first.getId());
+        assertEquals(7L, first.getQuizId());
+        assertEquals("True", first.getOption1());
+        assertNull(first.getOption3());
+        assertEquals(0, first.getCorrectIndex());
+
+        QuestionEntity second = quiz.questions().get(1);
+        assertEquals("Größe?", second.getQuestion());
+        assertEquals(3, second.getCorrectIndex());
+
+        assertEquals(1, snapshot.find(3L).questions().get(0).getCorrectIndex());
+    }
+
+    @Test
+    void dedupShrinksRepeatedStrings() throws Exception {
+
+        List<QuestionEntity> questions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            questions.add(question(i, "Statement " + i, "True", "False", "Maybe", "Never", i % 4));
+        }
+        List<QuizSnapshotFile.Quiz> quizzes =
+                List.of(new QuizSnapshotFile.Quiz(1, "default", QuestionOrder.SHUFFLED, false, questions));
+
+        Path plain = dir.resolve("plain.snap");
+        Path dedup = dir.resolve("dedup.snap");
+        QuizSnapshotFile.write(plain, quizzes, false);
+        QuizSnapshotFile.write(dedup, quizzes, true);
+
+        assertTrue(Files.size(dedup) < Files.size(plain));
+        assertEquals(QuizSnapshotFile.open(plain).find(1L).questions().get(49).getOption4(),
+                QuizSnapshotFile.open(dedup).find(1L).questions().get(49).getOption4());
+    }
+
+    @Test
+    void copiedBlocksAreByteIdenticalAndStillReadable() throws Exception {
+
+        Path first = dir.resolve("first.snap");
+        QuizSnapshotFile.write(first, List.of(
+                new QuizSnapshotFile.Quiz(1, "default", QuestionOrder.SHUFFLED, false,
+                        List.of(question(10, "Old?", "True", "False", null, null, 1))),
+                new QuizSnapshotFile.Quiz(2, "default", QuestionOrder.SEQUENTIAL, true,
+                        List.of(question(20, "Kept?", "Yes", "No", null, null, 0)))), true);
+        QuizSnapshotFile old = QuizSnapshotFile.open(first);
+
+        Path second = dir.resolve("second.snap");
+        try (QuizSnapshotFile.Writer writer = QuizSnapshotFile.Writer.create(second, 3, true)) {
+            writer.add(new QuizSnapshotFile.Quiz(1, "default", QuestionOrder.SHUFFLED, false,
+                    List.of(question(11, "New?", "A", "B", "C", "D", 2))));
+            writer.copy(old, 2);
+            writer.commit(42);
+        }
+
+        QuizSnapshotFile rebuilt = QuizSnapshotFile.open(second);
+        assertEquals(42, rebuilt.changeVersion());
+        assertEquals(List.of(1L, 2L), rebuilt.quizIds());
+        assertEquals("New?", rebuilt.find(1L).questions().get(0).getQuestion());
+
+        QuizSnapshotFile.Quiz kept = rebuilt.find(2L);
+        assertTrue(kept.singleMessage());
+        assertEquals("Kept?", kept.questions().get(0).getQuestion());
+        assertEquals(2L, kept.questions().get(0).getQuizId());
+    }
+
+    @Test
+    void outOfOrderAddsAndTruncatedFilesAreRejected() throws Exception {
+
+        Path path = dir.resolve("bad.snap");
+        QuizSnapshotFile.Quiz quiz = new QuizSnapshotFile.Quiz(5, "default", QuestionOrder.SHUFFLED, false,
+                List.of(question(50, "Q", "A", "B", null, null, 0)));
+
+        try (QuizSnapshotFile.Writer writer = QuizSnapshotFile.Writer.create(path, 2, true)) {
+            writer.add(quiz);
+            assertThrows(IllegalStateException.class, () -> writer.add(quiz));
+        }
+        assertFalse(Files.exists(path.resolveSibling("bad.snap.tmp")));
+
+        QuizSnapshotFile.write(path, List.of(quiz), true);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, java.util.Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IllegalStateException.class, () -> QuizSnapshotFile.open(path));
+    }
+
+    private static QuestionEntity question(long id, String text, String o1, String o2, String o3, String o4,
+                                           int correct) {
+        QuestionEntity q = new QuestionEntity();
+        q.setId(id);
+        q.setQuestion(text);
+        q.setOption1(o1);
+        q.setOption2(o2);
+        q.setOption3(o3);
+        q.setOption4(o4);
+        q.setCorrectIndex(correct);
+        return q;
+    }
+}
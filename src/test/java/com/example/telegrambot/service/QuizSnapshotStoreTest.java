@@ -0,0 +1,126 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import com.example.telegrambot.entity.QuestionOrder;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.repository.QuestionRepository;
+import com.example.telegrambot.repository.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class QuizSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private QuizRepository quizzes;
+    private QuestionRepository questions;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        quizzes = mock(QuizRepository.class);
+        questions = mock(QuestionRepository.class);
+        path = dir.resolve("quiz.snap");
+
+        QuizSnapshotFile.write(path, List.of(
+                new QuizSnapshotFile.Quiz(1, "default", QuestionOrder.SHUFFLED, false,
+                        List.of(question(10, 1, "One?"))),
+                new QuizSnapshotFile.Quiz(2, "default", QuestionOrder.SHUFFLED, false,
+                        List.of(question(20, 2, "Two?")))), true);
+    }
+
+    @Test
+    void validSnapshotIsReusedAtStartupWithoutReloadingContent() {
+
+        QuizSnapshotStore store = store();
+        store.open();
+        store.rebuild();
+
+        assertEquals("Two?", store.find(2L).questions().get(0).getQuestion());
+        verify(quizzes, never()).findByActiveTrue();
+        verify(quizzes, never()).findAllById(any());
+        verifyNoInteractions(questions);
+    }
+
+    @Test
+    void quizDeletedSinceTheSnapshotWasBuiltIsNotServed() throws Exception {
+
+        // Deleted on another instance while this one was down
+        when(quizzes.findContentChangesSince(0L)).thenReturn(List.<Object[]>of(new Object[]{7L, 2L, true}));
+        when(quizzes.findAllById(any())).thenReturn(List.of());
+
+        QuizSnapshotStore store = store();
+        store.open();
+
+        assertNull(store.find(2L));
+        assertNotNull(store.find(1L));
+
+        store.rebuild();
+
+        assertNull(store.find(2L));
+        assertEquals(List.of(1L), QuizSnapshotFile.open(path).quizIds());
+        assertEquals(7L, QuizSnapshotFile.open(path).changeVersion());
+    }
+
+    @Test
+    void snapshotOlderThanTheChangeLogIsRebuiltInFull() {
+
+        when(quizzes.oldestContentChange()).thenReturn(100L);
+
+        QuizSnapshotStore store = store();
+        store.open();
+
+        assertNull(store.find(1L));
+    }
+
+    @Test
+    void incrementalRebuildReloadsOnlyDirtyQuizzes() {
+
+        QuizEntity changed = new QuizEntity();
+        changed.setId(1L);
+        changed.setTenantId("default");
+        changed.setActive(true);
+
+        when(quizzes.findAllById(any())).thenReturn(List.of(changed));
+        when(questions.findByQuizIdInOrderByQuizIdAscIdAsc(List.of(1L)))
+                .thenReturn(List.of(question(11, 1, "One, edited?")));
+
+        QuizSnapshotStore store = store();
+        store.open();
+        Runnable listener = mock(Runnable.class);
+        store.onRebuilt(listener);
+
+        store.markDirty(1L);
+        assertNull(store.find(1L));
+
+        store.rebuild();
+
+        assertEquals("One, edited?", store.find(1L).questions().get(0).getQuestion());
+        assertEquals("Two?", store.find(2L).questions().get(0).getQuestion());
+        verify(questions, times(1)).findByQuizIdInOrderByQuizIdAscIdAsc(any());
+        verify(listener).run();
+    }
+
+    private QuizSnapshotStore store() {
+        return new QuizSnapshotStore(quizzes, questions, true, path.toString(), true);
+    }
+
+    private static QuestionEntity question(long id, long quizId, String text) {
+        QuestionEntity q = new QuestionEntity();
+        q.setId(id);
+        q.setQuizId(quizId);
+        q.setQuestion(text);
+        q.setOption1("Yes");
+        q.setOption2("No");
+        return q;
+    }
+}
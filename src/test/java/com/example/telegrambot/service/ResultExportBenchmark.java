@@ -0,0 +1,96 @@
+package com.example.telegrambot.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Export throughput and heap growth for one quiz with millions of results,
+ * against a migrated Postgres. Opt-in, it seeds and drops its own data:
+ *
+ *   mvn test -Dtest=ResultExportBenchmark \
+ *       -Dbench.db.url=jdbc:postgresql://localhost:5432/quizbot_bench \
+ *       -Dbench.db.user=postgres -Dbench.db.password=postgres
+ *
+ * Heap growth should stay flat as bench.results grows.
+ */
+@EnabledIfSystemProperty(named = "bench.db.url", matches = ".+")
+class ResultExportBenchmark {
+
+    private static final int RESULTS = Integer.getInteger("bench.results", 2_000_000);
+    private static final String TENANT = "bench";
+
+    @Test
+    void streamsResultsToGzip() throws Exception {
+
+        try (Connection c = DriverManager.getConnection(
+                System.getProperty("bench.db.url"),
+                System.getProperty("bench.db.user", "postgres"),
+                System.getProperty("bench.db.password", "postgres"))) {
+
+            long quizId = seed(c);
+
+            CountingStream out = new CountingStream();
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+            long t = System.nanoTime();
+            long rows = ResultExporter.export(c, TENANT, quizId, out);
+            double seconds = (System.nanoTime() - t) / 1e9;
+
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+            System.out.printf("exported %d rows in %.2f s (%.0f rows/s), %d gzip bytes, heap +%d KiB%n",
+                    rows, seconds, rows / seconds, out.bytes, (heapAfter - heapBefore) / 1024);
+
+            cleanup(c);
+        }
+    }
+
+    private long seed(Connection c) throws Exception {
+
+        try (Statement st = c.createStatement()) {
+
+            ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(quiz_id), 0) + 1 FROM quiz_results");
+            rs.next();
+            long quizId = rs.getLong(1);
+
+            long t = System.currentTimeMillis();
+
+            st.execute("INSERT INTO quiz_results (tenant_id, quiz_id, chat_id, score, total, finished_at) " +
+                    "SELECT '" + TENANT + "', " + quizId + ", g, g % 11, 10, now() " +
+                    "FROM generate_series(1, " + RESULTS + ") g");
+            st.execute("ANALYZE quiz_results");
+
+            System.out.printf("seeded %d results in %d ms%n", RESULTS, System.currentTimeMillis() - t);
+            return quizId;
+        }
+    }
+
+    private void cleanup(Connection c) throws Exception {
+        try (Statement st = c.createStatement()) {
+            st.execute("DELETE FROM quiz_results WHERE tenant_id = '" + TENANT + "'");
+        }
+    }
+
+    // Discards output, like an upload that never buffers
+    private static final class CountingStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.bot.TelegramSender;
+import com.example.telegrambot.entity.QuizEntity;
+import com.example.telegrambot.repository.QuizRepository;
+import com.example.telegrambot.session.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResultExporterTest {
+
+    @Test
+    void writesOneGzippedCsvLinePerAnswer() throws Exception {
+
+        Timestamp finished = Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 12, 30));
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getLong(1)).thenReturn(1L, 1L, 2L);
+        when(rs.getLong(2)).thenReturn(7L, 7L, 8L);
+        when(rs.getInt(3)).thenReturn(1, 1, 0);
+        when(rs.getInt(4)).thenReturn(2, 2, 2);
+        when(rs.getTimestamp(5)).thenReturn(finished);
+        when(rs.getLong(6)).thenReturn(10L, 11L, 0L);
+        when(rs.wasNull()).thenReturn(false, false, true);
+        when(rs.getInt(7)).thenReturn(0, 3);
+        when(rs.getBoolean(8)).thenReturn(true, false);
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.executeQuery()).thenReturn(rs);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long results = ResultExporter.export(connection, "default", 5L, out);
+
+        assertEquals(2, results);
+        assertEquals("""
+                result_id,chat_id,score,total,finished_at,question_id,selected_option,correct
+                1,7,1,2,2026-10-01T12:30,10,1,true
+                1,7,1,2,2026-10-01T12:30,11,4,false
+                2,8,0,2,2026-10-01T12:30,,,
+                """, gunzip(out.toByteArray()));
+
+        verify(ps).setFetchSize(ResultExporter.FETCH_SIZE);
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void writerFailureAbortsTheUpload() throws Exception {
+
+        QuizEntity quiz = new QuizEntity();
+        quiz.setId(5L);
+        quiz.setTenantId("default");
+
+        QuizRepository quizzes = mock(QuizRepository.class);
+        when(quizzes.findById(5L)).thenReturn(Optional.of(quiz));
+
+        // Some bytes make it into the pipe, then the cursor dies
+        ResultExporter exporter = mock(ResultExporter.class);
+        when(exporter.export(eq("default"), eq(5L), any(OutputStream.class))).thenAnswer(inv -> {
+            inv.<OutputStream>getArgument(2).write(new byte[100]);
+            throw new SQLException("connection reset");
+        });
+
+        AtomicReference<IOException> uploadError = new AtomicReference<>();
+        TelegramSender sender = mock(TelegramSender.class);
+        when(sender.sendDocument(eq("default"), any(SendDocument.class))).thenAnswer(inv -> {
+            try (InputStream in = inv.<SendDocument>getArgument(1).getDocument().getNewMediaStream()) {
+                in.readAllBytes();
+                return null;
+            } catch (IOException e) {
+                uploadError.set(e);
+                throw new TelegramApiException(e);
+            }
+        });
+
+        ResultExportService service = new ResultExportService(quizzes, exporter, sender);
+        try {
+            TenantContext.run("default", () -> service.startExport(5L, 99L));
+
+            verify(sender, timeout(5000)).sendAsync(eq("default"),
+                    argThat((SendMessage m) -> m.getText().contains("failed")));
+            assertNotNull(uploadError.get());
+            assertInstanceOf(SQLException.class, uploadError.get().getCause());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.telegrambot.service;
+
+import com.example.telegrambot.entity.QuestionOrder;
+import com.example.telegrambot.session.QuizSession;
+import com.example.telegrambot.session.TenantChat;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SessionHandoffServiceTest {
+
+    private static final List<String> COLUMNS = List.of("tenant_id", "chat_id", "quiz_id", "question_order",
+            "seed", "single_message", "size", "cursor_position", "current_position", "score", "served",
+            "answers", "last_activity");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void parkedSessionIsClaimedBackUnchanged() throws Exception {
+
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        QuizService quizService = mock(QuizService.class);
+
+        QuizSession session = new QuizSession();
+        session.setQuizId(42L);
+        session.setOrder(QuestionOrder.ADAPTIVE);
+        session.setSeed(-1234567890123L);
+        session.setSingleMessage(true);
+        session.setSize(12);
+        session.setCursor(3);
+        session.setCurrent(9);
+        session.setScore(2);
+        session.setLastActivity(System.currentTimeMillis());
+        BitSet served = new BitSet(12);
+        served.set(0);
+        served.set(4);
+        served.set(11);
+        session.setServed(served);
+        session.setAnswers(new byte[]{0, 0, 0, 0, 3, 0, 0, 0, 0, 1, 0, 2});
+
+        TenantChat chat = new TenantChat("default", 7L);
+        when(quizService.exportSessions()).thenReturn(Map.of(chat, session));
+
+        // "Table row": column index -> value, filled by the park statement
+        Map<Integer, Object> row = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        doAnswer(inv -> row.put(inv.getArgument(0), inv.getArgument(1))).when(ps).setString(anyInt(), any());
+        doAnswer(inv -> row.put(inv.getArgument(0), inv.getArgument(1))).when(ps).setLong(anyInt(), anyLong());
+        doAnswer(inv -> row.put(inv.getArgument(0), inv.getArgument(1))).when(ps).setInt(anyInt(), anyInt());
+        doAnswer(inv -> row.put(inv.getArgument(0), inv.getArgument(1))).when(ps).setBoolean(anyInt(), anyBoolean());
+        doAnswer(inv -> row.put(inv.getArgument(0), inv.getArgument(1))).when(ps).setBytes(anyInt(), any());
+
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    ParameterizedPreparedStatementSetter<Object> setter = inv.getArgument(3);
+                    for (Object entry : (Collection<Object>) inv.getArgument(1)) {
+                        setter.setValues(ps, entry);
+                    }
+                    return new int[0][];
+                });
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenAnswer(inv -> column(row, inv.getArgument(0)));
+        when(rs.getLong(anyString())).thenAnswer(inv -> column(row, inv.getArgument(0)));
+        when(rs.getInt(anyString())).thenAnswer(inv -> column(row, inv.getArgument(0)));
+        when(rs.getBoolean(anyString())).thenAnswer(inv -> column(row, inv.getArgument(0)));
+        when(rs.getBytes(anyString())).thenAnswer(inv -> column(row, inv.getArgument(0)));
+
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+
+        SessionHandoffService handoff = new SessionHandoffService(jdbc, quizService);
+
+        assertEquals(1, handoff.park());
+        handoff.claim();
+
+        ArgumentCaptor<Map<TenantChat, QuizSession>> claimed = ArgumentCaptor.forClass(Map.class);
+        verify(quizService).importSessions(claimed.capture());
+
+        QuizSession restored = claimed.getValue().get(chat);
+        assertNotNull(restored);
+        assertEquals(42L, restored.getQuizId());
+        assertEquals(QuestionOrder.ADAPTIVE, restored.getOrder());
+        assertEquals(session.getSeed(), restored.getSeed());
+        assertTrue(restored.isSingleMessage());
+        assertEquals(12, restored.getSize());
+        assertEquals(3, restored.getCursor());
+        assertEquals(9, restored.getCurrent());
+        assertEquals(2, restored.getScore());
+        assertEquals(served, restored.getServed());
+        assertArrayEquals(session.getAnswers(), restored.getAnswers());
+        assertEquals(session.getLastActivity(), restored.getLastActivity());
+    }
+
+    private static Object column(Map<Integer, Object> row, String name) {
+        return row.get(COLUMNS.indexOf(name) + 1);
+    }
+}
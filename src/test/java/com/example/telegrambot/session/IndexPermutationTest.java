@@ -0,0 +1,47 @@
+package com.example.telegrambot.session;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexPermutationTest {
+
+    @Test
+    void isBijectionForAnySize() {
+        for (int size : new int[]{1, 2, 3, 4, 5, 17, 100, 4097}) {
+            for (long seed = 0; seed < 10; seed++) {
+
+                boolean[] seen = new boolean[size];
+
+                for (int i = 0; i < size; i++) {
+                    int p = IndexPermutation.apply(i, size, seed);
+                    assertFalse(seen[p], "duplicate position for size " + size);
+                    seen[p] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    void isStablePerSeed() {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(IndexPermutation.apply(i, 50, 42L), IndexPermutation.apply(i, 50, 42L));
+        }
+    }
+
+    @Test
+    void differentSeedsGiveDifferentOrders() {
+
+        int same = 0;
+        for (int i = 0; i < 100; i++) {
+            if (IndexPermutation.apply(i, 100, 1L) == IndexPermutation.apply(i, 100, 2L)) same++;
+        }
+
+        assertTrue(same < 100);
+    }
+
+    @Test
+    void rejectsOutOfRangeIndex() {
+        assertThrows(IndexOutOfBoundsException.class, () -> IndexPermutation.apply(5, 5, 0L));
+    }
+}
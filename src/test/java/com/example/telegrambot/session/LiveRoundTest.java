@@ -0,0 +1,57 @@
+package com.example.telegrambot.session;
+
+import com.example.telegrambot.entity.QuestionEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveRoundTest {
+
+    @Test
+    void countsOneAnswerPerPlayer() {
+
+        LiveRound round = new LiveRound(0, new QuestionEntity());
+
+        assertTrue(round.submit(1L, 2));
+        assertFalse(round.submit(1L, 3), "second answer of the same player is ignored");
+        assertTrue(round.submit(2L, 2));
+        assertFalse(round.submit(3L, 4), "out-of-range option");
+
+        assertEquals(2, round.count(2));
+        assertEquals(0, round.count(3));
+    }
+
+    @Test
+    void rejectsAnswersAfterClose() {
+
+        LiveRound round = new LiveRound(0, new QuestionEntity());
+        round.close();
+
+        assertFalse(round.submit(1L, 0));
+        assertEquals(0, round.count(0));
+    }
+
+    @Test
+    void tallyIsExactUnderConcurrentBurst() {
+
+        LiveRound round = new LiveRound(0, new QuestionEntity());
+        List<CompletableFuture<Void>> players = new ArrayList<>();
+
+        for (long chatId = 0; chatId < 4000; chatId++) {
+            long id = chatId;
+            players.add(CompletableFuture.runAsync(() -> {
+                round.submit(id, (int) (id % 4));
+                round.submit(id, 0);
+            }));
+        }
+        CompletableFuture.allOf(players.toArray(new CompletableFuture[0])).join();
+
+        for (int option = 0; option < 4; option++) {
+            assertEquals(1000, round.count(option));
+        }
+    }
+}